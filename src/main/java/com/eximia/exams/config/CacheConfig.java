@@ -0,0 +1,20 @@
+package com.eximia.exams.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Caffeine caches declared under {@code spring.cache}. Caches listed in
+ * {@code spring.cache.cache-names} are created at startup, so actuator binds their hit, miss and
+ * eviction statistics as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EXAMS_CACHE = "exams";
+
+    // Operations coalesced by SingleFlight, keyed by exam id
+    public static final String EXAM_LOADS = "exam";
+    public static final String EXAM_QUESTION_LOADS = "exam-questions";
+}
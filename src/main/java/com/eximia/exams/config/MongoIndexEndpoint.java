@@ -0,0 +1,33 @@
+package com.eximia.exams.config;
+
+import com.eximia.exams.dto.response.IndexReportDto;
+import com.eximia.exams.service.IndexReconciler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/mongoindexes}: GET reports missing, unused and undeclared indexes, POST builds the
+ * missing ones. Not exposed over HTTP unless added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "mongoindexes")
+@RequiredArgsConstructor
+public class MongoIndexEndpoint {
+
+    private final IndexReconciler indexReconciler;
+
+    @ReadOperation
+    public List<IndexReportDto> report() {
+        return indexReconciler.report();
+    }
+
+    @WriteOperation
+    public List<String> reconcile() {
+        return indexReconciler.reconcile();
+    }
+}
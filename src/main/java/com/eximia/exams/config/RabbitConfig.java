@@ -1,9 +1,12 @@
 package com.eximia.exams.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,15 +14,23 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitConfig {
 
     public static final String EXAM_EXCHANGE = "exam.exchange";
+    public static final String CACHE_INVALIDATION_EXCHANGE = "exam.cache.invalidation";
 
     public static final String EXAM_REQUEST_ROUTING_KEY = "exam.request";
     public static final String EXAM_CREATED_ROUTING_KEY = "exam.created";
+    public static final String EXAM_UPDATED_ROUTING_KEY = "exam.updated";
+    public static final String EXAM_DELETED_ROUTING_KEY = "exam.deleted";
     public static final String EXAM_FAILED_ROUTING_KEY = "exam.failed";
 
     public static final String EXAM_REQUEST_QUEUE = "exam.request.queue";
+    public static final String EXAM_REQUEST_RETRY_QUEUE = "exam.request.retry.queue";
     public static final String EXAM_CREATED_QUEUE = "exam.created.queue";
+    public static final String EXAM_UPDATED_QUEUE = "exam.updated.queue";
+    public static final String EXAM_DELETED_QUEUE = "exam.deleted.queue";
     public static final String EXAM_FAILED_QUEUE = "exam.failed.queue";
 
+    public static final String EXAM_TICKET_HEADER = "x-exam-ticket-id";
+
     @Bean
     public DirectExchange examExchange() {
         return new DirectExchange(EXAM_EXCHANGE);
@@ -39,6 +50,21 @@ public class RabbitConfig {
                 .build();
     }
 
+    /**
+     * Holds exam requests that could not be processed yet for {@code retry-delay}, then dead-letters them
+     * back to {@code exam.request.queue}. It has no consumer.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.rabbitmq.batch-consumer.enabled", havingValue = "true")
+    public Queue examRequestRetryQueue(@Value("${app.rabbitmq.batch-consumer.retry-delay:5000}") long retryDelay) {
+        return QueueBuilder
+                .durable(EXAM_REQUEST_RETRY_QUEUE)
+                .ttl((int) retryDelay)
+                .withArgument("x-dead-letter-exchange", EXAM_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", EXAM_REQUEST_ROUTING_KEY)
+                .build();
+    }
+
     @Bean
     public Queue examCreatedQueue() {
         return QueueBuilder
@@ -46,6 +72,20 @@ public class RabbitConfig {
                 .build();
     }
 
+    @Bean
+    public Queue examUpdatedQueue() {
+        return QueueBuilder
+                .durable(EXAM_UPDATED_QUEUE)
+                .build();
+    }
+
+    @Bean
+    public Queue examDeletedQueue() {
+        return QueueBuilder
+                .durable(EXAM_DELETED_QUEUE)
+                .build();
+    }
+
     @Bean
     public Queue examFailedQueue() {
         return QueueBuilder
@@ -69,6 +109,22 @@ public class RabbitConfig {
                 .with(EXAM_CREATED_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding examUpdatedBinding() {
+        return BindingBuilder
+                .bind(examUpdatedQueue())
+                .to(examExchange())
+                .with(EXAM_UPDATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding examDeletedBinding() {
+        return BindingBuilder
+                .bind(examDeletedQueue())
+                .to(examExchange())
+                .with(EXAM_DELETED_ROUTING_KEY);
+    }
+
     @Bean
     public Binding examFailedBinding() {
         return BindingBuilder
@@ -77,11 +133,56 @@ public class RabbitConfig {
                 .with(EXAM_FAILED_ROUTING_KEY);
     }
 
+    /**
+     * Fans cache invalidations out to every replica. Each replica consumes them from its own exclusive,
+     * auto-delete queue, which goes away with the replica.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange(CACHE_INVALIDATION_EXCHANGE);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+    public Binding cacheInvalidationBinding() {
+        return BindingBuilder
+                .bind(cacheInvalidationQueue())
+                .to(cacheInvalidationExchange());
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
     }
 
+    /**
+     * Delivers up to {@code batch-size} messages per listener call, or whatever arrived within
+     * {@code receive-timeout}. Acknowledgement is manual so each message can be settled on its own.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.rabbitmq.batch-consumer.enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${app.rabbitmq.batch-consumer.batch-size:100}") int batchSize,
+            @Value("${app.rabbitmq.batch-consumer.receive-timeout:1000}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
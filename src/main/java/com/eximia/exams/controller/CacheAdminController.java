@@ -0,0 +1,41 @@
+package com.eximia.exams.controller;
+
+import com.eximia.exams.dto.response.CacheWarmUpDto;
+import com.eximia.exams.mesagging.publisher.CacheInvalidationPublisher;
+import com.eximia.exams.service.ExamWarmUpService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Cache Administration", description = "Preloading of the exam caches")
+public class CacheAdminController {
+
+    private final ExamWarmUpService examWarmUpService;
+    private final ObjectProvider<CacheInvalidationPublisher> cacheInvalidationPublisher;
+
+    @PostMapping("/warm-up")
+    @Operation(summary = "Preload the given exams into the caches of every replica, e.g. ahead of a scheduled sitting. "
+            + "The result describes this replica")
+    public ResponseEntity<CacheWarmUpDto> warmUp(@RequestBody @NotEmpty List<@NotBlank String> examIds) {
+        log.info("REST: Preloading {} exams", examIds.size());
+        cacheInvalidationPublisher.ifAvailable(publisher -> publisher.publishWarmUp(examIds));
+        return ResponseEntity.ok(examWarmUpService.warmUp(examIds));
+    }
+}
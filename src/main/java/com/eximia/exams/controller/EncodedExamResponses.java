@@ -0,0 +1,80 @@
+package com.eximia.exams.controller;
+
+import com.eximia.exams.service.EncodedExamCache.EncodedExam;
+import com.eximia.exams.service.ExamVersionService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+
+/**
+ * Writes exams cached by {@link com.eximia.exams.service.EncodedExamCache} straight to the servlet
+ * response, bypassing message conversion.
+ */
+final class EncodedExamResponses {
+
+    private static final String GZIP = "gzip";
+    private static final String ANY = "*";
+    private static final String QUALITY = "q=";
+
+    private EncodedExamResponses() {
+    }
+
+    static void write(EncodedExam encodedExam, WebRequest webRequest, HttpServletResponse response) throws IOException {
+        boolean gzipAccepted = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, ExamVersionService.eTag(encodedExam.version()));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (encodedExam.gzipped() && gzipAccepted) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        if (!encodedExam.gzipped() || gzipAccepted) {
+            response.setContentLength(encodedExam.size());
+        }
+
+        encodedExam.writeTo(response.getOutputStream(), gzipAccepted);
+        response.flushBuffer();
+    }
+
+    /**
+     * Whether {@code acceptEncoding} gives gzip, or failing that {@code *}, a quality above zero.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (GZIP.equalsIgnoreCase(name)) {
+                gzipQuality = quality(parameters);
+            } else if (ANY.equals(name)) {
+                anyQuality = quality(parameters);
+            }
+        }
+
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, QUALITY, 0, QUALITY.length())) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY.length()).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -1,10 +1,19 @@
 package com.eximia.exams.controller;
 
 import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.response.CursorSliceDto;
+import com.eximia.exams.dto.response.ExamCreationTicketDto;
 import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.ExamSummaryDto;
+import com.eximia.exams.service.EncodedExamCache;
+import com.eximia.exams.service.ExamAccessTracker;
+import com.eximia.exams.service.EncodedExamCache.EncodedExam;
 import com.eximia.exams.service.ExamService;
+import com.eximia.exams.service.ExamSubmissionService;
 import com.eximia.exams.dto.criteria.ExamCriteria;
 import com.eximia.exams.service.ExamQueryService;
+import com.eximia.exams.service.ExamVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,15 +21,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -32,13 +49,85 @@ public class ExamController {
 
     private final ExamService examService;
     private final ExamQueryService examQueryService;
+    private final ObjectMapper objectMapper;
+    private final ExamSubmissionService examSubmissionService;
+    private final ExamVersionService examVersionService;
+    private final EncodedExamCache encodedExamCache;
+    private final ExamAccessTracker examAccessTracker;
+
+    @PostMapping
+    @Operation(summary = "Create a new exam")
+    public ResponseEntity<ExamResponseDto> createExam(
+            @Valid @RequestBody ExamRequestDto examRequestDto,
+            @Parameter(description = "Key that makes retries of the same creation return the original exam")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.info("REST: Creating exam with title: {}", examRequestDto.getTitle());
+        ExamResponseDto responseDto = examService.createExam(examRequestDto, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
+    }
+
+    @PostMapping("/async")
+    @Operation(summary = "Submit an exam for asynchronous creation")
+    public ResponseEntity<ExamCreationTicketDto> submitExam(@Valid @RequestBody ExamRequestDto examRequestDto) {
+        log.info("REST: Submitting exam with title: {}", examRequestDto.getTitle());
+        ExamCreationTicketDto ticketDto = examSubmissionService.submitExam(examRequestDto);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{ticketId}")
+                        .buildAndExpand(ticketDto.getTicketId())
+                        .toUri())
+                .body(ticketDto);
+    }
+
+    @GetMapping("/async/{ticketId}")
+    @Operation(summary = "Get the status of an asynchronous exam creation")
+    public ResponseEntity<ExamCreationTicketDto> getSubmission(@PathVariable @NotBlank String ticketId) {
+        log.info("REST: Fetching exam creation ticket with ID: {}", ticketId);
+        ExamCreationTicketDto ticketDto = examSubmissionService.getTicket(ticketId);
+        return ResponseEntity.ok(ticketDto);
+    }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get exam by ID")
-    public ResponseEntity<ExamResponseDto> getExamById(@PathVariable @NotBlank String id) {
+    @Operation(summary = "Get exam by ID, answering 304 when If-None-Match holds its current version")
+    public ResponseEntity<ExamResponseDto> getExamById(@PathVariable @NotBlank String id, WebRequest webRequest,
+                                                       HttpServletResponse servletResponse) throws IOException {
         log.info("REST: Fetching exam with ID: {}", id);
-        ExamResponseDto responseDto = examService.getExamById(id);
-        return ResponseEntity.ok(responseDto);
+
+        Optional<Long> version = examVersionService.findVersion(id);
+        version.ifPresent(current -> examAccessTracker.record(id));
+        if (version.isPresent() && webRequest.checkNotModified(ExamVersionService.eTag(version.get()))) {
+            return null;
+        }
+
+        if (encodedExamCache.isEnabled() && version.isPresent()) {
+            EncodedExam encodedExam = encodedExamCache.find(id, version.get()).orElse(null);
+            if (encodedExam == null) {
+                ExamResponseDto responseDto = examService.getExamById(id, version.get());
+                if (!version.get().equals(responseDto.getVersion())) {
+                    // Written again since the version was read, so the tree must not be stored under it
+                    return withETag(responseDto);
+                }
+                encodedExam = encodedExamCache.put(id, version.get(), objectMapper.writeValueAsBytes(responseDto));
+            }
+            EncodedExamResponses.write(encodedExam, webRequest, servletResponse);
+            return null;
+        }
+
+        ExamResponseDto responseDto = version.isPresent()
+                ? examService.getExamById(id, version.get())
+                : examService.getExamById(id);
+        return withETag(responseDto);
+    }
+
+    /**
+     * Tags the response with the version of the tree itself, which may differ from the version read first.
+     */
+    private static ResponseEntity<ExamResponseDto> withETag(ExamResponseDto responseDto) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (responseDto.getVersion() != null) {
+            response.eTag(ExamVersionService.eTag(responseDto.getVersion()));
+        }
+        return response.body(responseDto);
     }
 
     @GetMapping
@@ -51,6 +140,38 @@ public class ExamController {
         return ResponseEntity.ok(examPage);
     }
 
+    @GetMapping(params = "view=summary")
+    @Operation(summary = "Get exam summaries by criteria with pagination, without questions")
+    public ResponseEntity<Page<ExamSummaryDto>> getExamSummariesByCriteria(
+            @Parameter(description = "Search criteria") ExamCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Fetching exam summaries with criteria: {}", criteria);
+        Page<ExamSummaryDto> summaryPage = examQueryService.findSummariesByCriteria(criteria, pageable);
+        return ResponseEntity.ok(summaryPage);
+    }
+
+    @GetMapping(params = {"total=false", "view!=summary"})
+    @Operation(summary = "Get exams by criteria with pagination, without counting the total")
+    public ResponseEntity<Slice<ExamResponseDto>> getExamsSliceByCriteria(
+            @Parameter(description = "Search criteria") ExamCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Fetching exams slice with criteria: {}", criteria);
+        Slice<ExamResponseDto> slice = examQueryService.findSliceByCriteria(criteria, pageable);
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get exams by criteria with cursor pagination")
+    public ResponseEntity<CursorSliceDto<ExamResponseDto>> scrollExams(
+            @Parameter(description = "Search criteria") ExamCriteria criteria,
+            @Parameter(description = "nextCursor of the previous slice, omitted for the first one")
+            @RequestParam(required = false) String cursor,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Scrolling exams with criteria: {}", criteria);
+        CursorSliceDto<ExamResponseDto> slice = examQueryService.scrollByCriteria(criteria, pageable, cursor);
+        return ResponseEntity.ok(slice);
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search exams by criteria without pagination")
     public ResponseEntity<List<ExamResponseDto>> searchExams(
@@ -60,6 +181,24 @@ public class ExamController {
         return ResponseEntity.ok(exams);
     }
 
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream exams matching the criteria as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamExams(
+            @Parameter(description = "Search criteria") ExamCriteria criteria) {
+        log.info("REST: Streaming exams with criteria: {}", criteria);
+        return NdjsonResponses.<ExamResponseDto>stream(objectMapper,
+                chunks -> examQueryService.streamByCriteria(criteria, chunks));
+    }
+
+    @GetMapping(value = "/search", params = "view=summary")
+    @Operation(summary = "Search exam summaries by criteria without pagination, without questions")
+    public ResponseEntity<List<ExamSummaryDto>> searchExamSummaries(
+            @Parameter(description = "Search criteria") ExamCriteria criteria) {
+        log.info("REST: Searching exam summaries with criteria: {}", criteria);
+        List<ExamSummaryDto> summaries = examQueryService.findSummariesByCriteria(criteria);
+        return ResponseEntity.ok(summaries);
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Count exams by criteria")
     public ResponseEntity<Long> countExams(
@@ -1,10 +1,13 @@
 package com.eximia.exams.controller;
 
 import com.eximia.exams.dto.request.OptionRequestDto;
+import com.eximia.exams.dto.response.CursorSliceDto;
 import com.eximia.exams.dto.response.OptionResponseDto;
+import com.eximia.exams.service.ExamVersionService;
 import com.eximia.exams.service.OptionService;
 import com.eximia.exams.dto.criteria.OptionCriteria;
 import com.eximia.exams.service.OptionQueryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,15 +15,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -32,6 +40,8 @@ public class OptionController {
 
     private final OptionService optionService;
     private final OptionQueryService optionQueryService;
+    private final ObjectMapper objectMapper;
+    private final ExamVersionService examVersionService;
 
     @PostMapping("/question/{questionId}")
     @Operation(summary = "Create a new option for a question")
@@ -44,11 +54,19 @@ public class OptionController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get option by ID")
-    public ResponseEntity<OptionResponseDto> getOptionById(@PathVariable @NotBlank String id) {
+    @Operation(summary = "Get option by ID, answering 304 when If-None-Match holds its exam's current version")
+    public ResponseEntity<OptionResponseDto> getOptionById(@PathVariable @NotBlank String id, WebRequest webRequest) {
         log.info("REST: Fetching option with ID: {}", id);
+
+        Optional<String> eTag = examVersionService.findVersionOfOption(id).map(ExamVersionService::eTag);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return null;
+        }
+
         OptionResponseDto responseDto = optionService.getOptionById(id);
-        return ResponseEntity.ok(responseDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(responseDto);
     }
 
     @GetMapping
@@ -61,6 +79,28 @@ public class OptionController {
         return ResponseEntity.ok(optionPage);
     }
 
+    @GetMapping(params = "total=false")
+    @Operation(summary = "Get options by criteria with pagination, without counting the total")
+    public ResponseEntity<Slice<OptionResponseDto>> getOptionsSliceByCriteria(
+            @Parameter(description = "Search criteria") OptionCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Fetching options slice with criteria: {}", criteria);
+        Slice<OptionResponseDto> slice = optionQueryService.findSliceByCriteria(criteria, pageable);
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get options by criteria with cursor pagination")
+    public ResponseEntity<CursorSliceDto<OptionResponseDto>> scrollOptions(
+            @Parameter(description = "Search criteria") OptionCriteria criteria,
+            @Parameter(description = "nextCursor of the previous slice, omitted for the first one")
+            @RequestParam(required = false) String cursor,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Scrolling options with criteria: {}", criteria);
+        CursorSliceDto<OptionResponseDto> slice = optionQueryService.scrollByCriteria(criteria, pageable, cursor);
+        return ResponseEntity.ok(slice);
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search options by criteria without pagination")
     public ResponseEntity<List<OptionResponseDto>> searchOptions(
@@ -70,6 +110,15 @@ public class OptionController {
         return ResponseEntity.ok(options);
     }
 
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream options matching the criteria as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamOptions(
+            @Parameter(description = "Search criteria") OptionCriteria criteria) {
+        log.info("REST: Streaming options with criteria: {}", criteria);
+        return NdjsonResponses.<OptionResponseDto>stream(objectMapper,
+                chunks -> optionQueryService.streamByCriteria(criteria, chunks));
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Count options by criteria")
     public ResponseEntity<Long> countOptions(
@@ -0,0 +1,59 @@
+package com.eximia.exams.controller;
+
+import com.eximia.exams.dto.criteria.ExamCriteria;
+import com.eximia.exams.dto.criteria.OptionCriteria;
+import com.eximia.exams.dto.criteria.QuestionCriteria;
+import com.eximia.exams.dto.response.QueryExplanationDto;
+import com.eximia.exams.service.ExamQueryService;
+import com.eximia.exams.service.OptionQueryService;
+import com.eximia.exams.service.QuestionQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/query-explain")
+@RequiredArgsConstructor
+@Tag(name = "Query Diagnostics", description = "Explain plans of the criteria queries")
+public class QueryDiagnosticsController {
+
+    private final ExamQueryService examQueryService;
+    private final QuestionQueryService questionQueryService;
+    private final OptionQueryService optionQueryService;
+
+    @GetMapping("/exams")
+    @Operation(summary = "Explain the query behind GET /exams for the same criteria and page")
+    public ResponseEntity<QueryExplanationDto> explainExams(
+            @Parameter(description = "Search criteria") ExamCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Explaining exams query with criteria: {}", criteria);
+        return ResponseEntity.ok(examQueryService.explainByCriteria(criteria, pageable));
+    }
+
+    @GetMapping("/questions")
+    @Operation(summary = "Explain the query behind GET /questions for the same criteria and page")
+    public ResponseEntity<QueryExplanationDto> explainQuestions(
+            @Parameter(description = "Search criteria") QuestionCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Explaining questions query with criteria: {}", criteria);
+        return ResponseEntity.ok(questionQueryService.explainByCriteria(criteria, pageable));
+    }
+
+    @GetMapping("/options")
+    @Operation(summary = "Explain the query behind GET /options for the same criteria and page")
+    public ResponseEntity<QueryExplanationDto> explainOptions(
+            @Parameter(description = "Search criteria") OptionCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Explaining options query with criteria: {}", criteria);
+        return ResponseEntity.ok(optionQueryService.explainByCriteria(criteria, pageable));
+    }
+}
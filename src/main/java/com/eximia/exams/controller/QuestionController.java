@@ -1,10 +1,17 @@
 package com.eximia.exams.controller;
 
 import com.eximia.exams.dto.request.QuestionRequestDto;
+import com.eximia.exams.dto.response.CursorSliceDto;
 import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.dto.response.QuestionSearchHitDto;
+import com.eximia.exams.dto.response.QuestionSummaryDto;
 import com.eximia.exams.service.QuestionService;
 import com.eximia.exams.dto.criteria.QuestionCriteria;
+import com.eximia.exams.service.ExamVersionService;
 import com.eximia.exams.service.QuestionQueryService;
+import com.eximia.exams.service.QuestionTextSearchService;
+import com.eximia.exams.service.TextSearchMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,15 +19,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -32,6 +44,9 @@ public class QuestionController {
 
     private final QuestionService questionService;
     private final QuestionQueryService questionQueryService;
+    private final ObjectMapper objectMapper;
+    private final QuestionTextSearchService questionTextSearchService;
+    private final ExamVersionService examVersionService;
 
     @PostMapping("/exam/{examId}")
     @Operation(summary = "Create a new question for an exam")
@@ -44,11 +59,19 @@ public class QuestionController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get question by ID")
-    public ResponseEntity<QuestionResponseDto> getQuestionById(@PathVariable @NotBlank String id) {
+    @Operation(summary = "Get question by ID, answering 304 when If-None-Match holds its exam's current version")
+    public ResponseEntity<QuestionResponseDto> getQuestionById(@PathVariable @NotBlank String id, WebRequest webRequest) {
         log.info("REST: Fetching question with ID: {}", id);
+
+        Optional<String> eTag = examVersionService.findVersionOfQuestion(id).map(ExamVersionService::eTag);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return null;
+        }
+
         QuestionResponseDto responseDto = questionService.getQuestionById(id);
-        return ResponseEntity.ok(responseDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(responseDto);
     }
 
     @GetMapping
@@ -61,6 +84,38 @@ public class QuestionController {
         return ResponseEntity.ok(questionPage);
     }
 
+    @GetMapping(params = "view=summary")
+    @Operation(summary = "Get question summaries by criteria with pagination, without options")
+    public ResponseEntity<Page<QuestionSummaryDto>> getQuestionSummariesByCriteria(
+            @Parameter(description = "Search criteria") QuestionCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Fetching question summaries with criteria: {}", criteria);
+        Page<QuestionSummaryDto> summaryPage = questionQueryService.findSummariesByCriteria(criteria, pageable);
+        return ResponseEntity.ok(summaryPage);
+    }
+
+    @GetMapping(params = {"total=false", "view!=summary"})
+    @Operation(summary = "Get questions by criteria with pagination, without counting the total")
+    public ResponseEntity<Slice<QuestionResponseDto>> getQuestionsSliceByCriteria(
+            @Parameter(description = "Search criteria") QuestionCriteria criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Fetching questions slice with criteria: {}", criteria);
+        Slice<QuestionResponseDto> slice = questionQueryService.findSliceByCriteria(criteria, pageable);
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get questions by criteria with cursor pagination")
+    public ResponseEntity<CursorSliceDto<QuestionResponseDto>> scrollQuestions(
+            @Parameter(description = "Search criteria") QuestionCriteria criteria,
+            @Parameter(description = "nextCursor of the previous slice, omitted for the first one")
+            @RequestParam(required = false) String cursor,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST: Scrolling questions with criteria: {}", criteria);
+        CursorSliceDto<QuestionResponseDto> slice = questionQueryService.scrollByCriteria(criteria, pageable, cursor);
+        return ResponseEntity.ok(slice);
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search questions by criteria without pagination")
     public ResponseEntity<List<QuestionResponseDto>> searchQuestions(
@@ -70,6 +125,36 @@ public class QuestionController {
         return ResponseEntity.ok(questions);
     }
 
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream questions matching the criteria as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamQuestions(
+            @Parameter(description = "Search criteria") QuestionCriteria criteria) {
+        log.info("REST: Streaming questions with criteria: {}", criteria);
+        return NdjsonResponses.<QuestionResponseDto>stream(objectMapper,
+                chunks -> questionQueryService.streamByCriteria(criteria, chunks));
+    }
+
+    @GetMapping(value = "/search", params = "view=summary")
+    @Operation(summary = "Search question summaries by criteria without pagination, without options")
+    public ResponseEntity<List<QuestionSummaryDto>> searchQuestionSummaries(
+            @Parameter(description = "Search criteria") QuestionCriteria criteria) {
+        log.info("REST: Searching question summaries with criteria: {}", criteria);
+        List<QuestionSummaryDto> summaries = questionQueryService.findSummariesByCriteria(criteria);
+        return ResponseEntity.ok(summaries);
+    }
+
+    @GetMapping("/text-search")
+    @Operation(summary = "Full-text search over question, explanation and option texts, with highlights")
+    public ResponseEntity<List<QuestionSearchHitDto>> textSearchQuestions(
+            @Parameter(description = "Words to search for") @RequestParam @NotBlank String q,
+            @Parameter(description = "MATCH, PREFIX, FUZZY or PHRASE")
+            @RequestParam(defaultValue = "MATCH") TextSearchMode mode,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("REST: Text searching questions for: {} ({})", q, mode);
+        List<QuestionSearchHitDto> hits = questionTextSearchService.search(q, mode, limit);
+        return ResponseEntity.ok(hits);
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Count questions by criteria")
     public ResponseEntity<Long> countQuestions(
@@ -0,0 +1,30 @@
+package com.eximia.exams.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of reads of an exam, keyed by the exam id. One small document per exam read at least once,
+ * incremented in bulk by {@code ExamAccessTracker} and ranked to pick the exams worth preloading.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "exam_access_stats")
+public class ExamAccessStats {
+
+    @Id
+    private String id;
+
+    @Field("count")
+    private Long count;
+
+    @Field("last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+}
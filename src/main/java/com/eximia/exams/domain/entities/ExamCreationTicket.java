@@ -0,0 +1,44 @@
+package com.eximia.exams.domain.entities;
+
+import com.eximia.exams.domain.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tracks an exam submitted for asynchronous creation through {@code exam.request.queue}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "exam_creation_tickets")
+public class ExamCreationTicket {
+
+    @Id
+    private String id;
+
+    @Field("status")
+    private TicketStatus status;
+
+    @Field("title")
+    private String title;
+
+    @Field("exam_id")
+    private String examId;
+
+    @Field("error")
+    private String error;
+
+    @Field("submitted_at")
+    private LocalDateTime submittedAt;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.eximia.exams.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Counter of the writes to an exam, its questions and its options, keyed by the exam id.
+ * <p>
+ * Kept outside {@code exams} so whole-document saves of an exam can never write back an older value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "exam_versions")
+public class ExamVersion {
+
+    @Id
+    private String id;
+
+    @Field("version")
+    private Long version;
+}
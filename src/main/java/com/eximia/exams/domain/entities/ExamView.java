@@ -0,0 +1,33 @@
+package com.eximia.exams.domain.entities;
+
+import com.eximia.exams.dto.response.ExamResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model of an exam: the whole question and option tree embedded in one document,
+ * keyed by the exam id and shaped like the API response.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "exam_views")
+public class ExamView {
+
+    @Id
+    private String id;
+
+    @Field("exam")
+    private ExamResponseDto exam;
+
+    @Field("refreshed_at")
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,36 @@
+package com.eximia.exams.domain.entities;
+
+import com.eximia.exams.domain.enums.IdempotencyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an exam creation keyed by the client's {@code Idempotency-Key} or the AMQP message id.
+ * Records expire through a TTL index on {@code created_at}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+
+    @Field("status")
+    private IdempotencyStatus status;
+
+    @Field("exam_id")
+    private String examId;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+}
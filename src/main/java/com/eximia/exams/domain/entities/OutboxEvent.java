@@ -0,0 +1,43 @@
+package com.eximia.exams.domain.entities;
+
+import com.eximia.exams.domain.events.ExamLifecycleMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exam lifecycle message waiting to be relayed to RabbitMQ. Documents are removed once the broker
+ * confirms them, so the collection only holds the backlog.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    @Field("routing_key")
+    private String routingKey;
+
+    @Field("message")
+    private ExamLifecycleMessage message;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    // Relay run holding the event, and until when
+    @Field("claimed_by")
+    private String claimedBy;
+
+    @Field("claimed_until")
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,6 @@
+package com.eximia.exams.domain.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,7 @@
+package com.eximia.exams.domain.enums;
+
+public enum TicketStatus {
+    PENDING,
+    CREATED,
+    FAILED
+}
@@ -0,0 +1,29 @@
+package com.eximia.exams.domain.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Body of the messages fanned out on {@code exam.cache.invalidation}, listing what every other replica
+ * has to evict from its local caches, or to preload into them.
+ * <p>
+ * {@code origin} identifies the publishing replica, which has already evicted locally and skips its own messages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    private String origin;
+
+    private Set<String> examIds;
+
+    private Set<String> questionIds;
+
+    private Set<String> warmUpExamIds;
+}
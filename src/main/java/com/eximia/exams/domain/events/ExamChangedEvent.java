@@ -0,0 +1,54 @@
+package com.eximia.exams.domain.events;
+
+import com.eximia.exams.dto.response.ExamResponseDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published after any write that changes an exam or one of its questions or options.
+ * <p>
+ * {@code questionIds} lists the questions whose own data or options were touched by the write, and
+ * {@code snapshot} carries the full exam when the writer already has it in memory.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ExamChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final String examId;
+    private final ChangeType changeType;
+    private final Set<String> questionIds;
+    private final ExamResponseDto snapshot;
+
+    public static ExamChangedEvent created(ExamResponseDto exam) {
+        return new ExamChangedEvent(exam.getId(), ChangeType.CREATED, Set.of(), exam);
+    }
+
+    public static ExamChangedEvent updated(ExamResponseDto exam, Collection<String> questionIds) {
+        return new ExamChangedEvent(exam.getId(), ChangeType.UPDATED, copyOf(questionIds), exam);
+    }
+
+    public static ExamChangedEvent updated(String examId, Collection<String> questionIds) {
+        return new ExamChangedEvent(examId, ChangeType.UPDATED, copyOf(questionIds), null);
+    }
+
+    public static ExamChangedEvent deleted(String examId) {
+        return new ExamChangedEvent(examId, ChangeType.DELETED, Set.of(), null);
+    }
+
+    public boolean hasSnapshot() {
+        return snapshot != null;
+    }
+
+    private static Set<String> copyOf(Collection<String> questionIds) {
+        return questionIds != null ? Set.copyOf(questionIds) : Set.of();
+    }
+}
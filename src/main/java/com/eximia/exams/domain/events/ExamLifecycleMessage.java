@@ -0,0 +1,35 @@
+package com.eximia.exams.domain.events;
+
+import com.eximia.exams.dto.response.ExamResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Body of the messages published to {@code exam.created}, {@code exam.updated} and {@code exam.deleted}.
+ * <p>
+ * {@code eventId} is also sent as the AMQP message id, so consumers can drop the duplicates an
+ * at-least-once relay may produce.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamLifecycleMessage {
+
+    private String eventId;
+
+    private ExamChangedEvent.ChangeType eventType;
+
+    private String examId;
+
+    private Set<String> questionIds;
+
+    private ExamResponseDto exam;
+
+    private LocalDateTime occurredAt;
+}
@@ -1,5 +1,6 @@
 package com.eximia.exams.dto.criteria;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,8 +16,19 @@ import java.time.LocalDateTime;
 public class ExamCriteria {
 
     private String id;
+
+    @Schema(description = "Words that must appear together, matched by the text index on whole stemmed words ignoring case, not as a substring. Set regex=true for substring matching.")
     private String title;
+
+    /**
+     * Matches titles starting with this value, ignoring case. Being case-insensitive, the match cannot be
+     * bounded by the title index and reads every title.
+     */
+    private String titlePrefix;
+
+    @Schema(description = "Words that must appear together, matched by the text index on whole stemmed words ignoring case, not as a substring. Set regex=true for substring matching.")
     private String description;
+
     private String subject;
     private String difficultyLevel;
     private String createdBy;
@@ -46,5 +58,11 @@ public class ExamCriteria {
     private Boolean allowMultipleChoice;
     private Boolean allowTrueFalse;
 
+    @Schema(description = "Words of which any must appear in the title, description or subject, matched by the text index on whole stemmed words ignoring case and ordered by relevance unless a sort is given. Set regex=true for substring matching.")
     private String searchText;
+
+    /**
+     * Matches the text criteria as case-insensitive regular expressions instead of through the text index.
+     */
+    private Boolean regex;
 }
\ No newline at end of file
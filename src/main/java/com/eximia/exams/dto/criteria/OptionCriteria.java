@@ -1,5 +1,6 @@
 package com.eximia.exams.dto.criteria;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,9 +17,15 @@ public class OptionCriteria {
 
     private String id;
     private String questionId;
+
+    @Schema(description = "Words that must appear together, matched by the text index on whole stemmed words ignoring case, not as a substring. Set regex=true for substring matching.")
     private String optionText;
+
     private Boolean isCorrect;
+
+    @Schema(description = "Words that must appear together, matched by the text index on whole stemmed words ignoring case, not as a substring. Set regex=true for substring matching.")
     private String explanation;
+
     private String createdBy;
     private String updatedBy;
 
@@ -40,5 +47,11 @@ public class OptionCriteria {
     private Integer orderIndexMin;
     private Integer orderIndexMax;
 
+    @Schema(description = "Words of which any must appear in the option text or explanation, matched by the text index on whole stemmed words ignoring case and ordered by relevance unless a sort is given. Set regex=true for substring matching.")
     private String searchText;
+
+    /**
+     * Matches the text criteria as case-insensitive regular expressions instead of through the text index.
+     */
+    private Boolean regex;
 }
\ No newline at end of file
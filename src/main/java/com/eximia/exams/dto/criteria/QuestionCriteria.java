@@ -1,6 +1,7 @@
 package com.eximia.exams.dto.criteria;
 
 import com.eximia.exams.domain.enums.QuestionType;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,9 +18,15 @@ public class QuestionCriteria {
 
     private String id;
     private String examId;
+
+    @Schema(description = "Words that must appear together, matched by the text index on whole stemmed words ignoring case, not as a substring. Set regex=true for substring matching.")
     private String questionText;
+
     private QuestionType questionType;
+
+    @Schema(description = "Words that must appear together, matched by the text index on whole stemmed words ignoring case, not as a substring. Set regex=true for substring matching.")
     private String explanation;
+
     private String createdBy;
     private String updatedBy;
 
@@ -41,5 +48,11 @@ public class QuestionCriteria {
     private Integer orderIndexMin;
     private Integer orderIndexMax;
 
+    @Schema(description = "Words of which any must appear in the question text or explanation, matched by the text index on whole stemmed words ignoring case and ordered by relevance unless a sort is given. Set regex=true for substring matching.")
     private String searchText;
+
+    /**
+     * Matches the text criteria as case-insensitive regular expressions instead of through the text index.
+     */
+    private Boolean regex;
 }
\ No newline at end of file
@@ -13,6 +13,11 @@ import jakarta.validation.constraints.*;
 @AllArgsConstructor
 public class OptionRequestDto {
 
+    /**
+     * Id of an existing option when the request updates a whole exam; ignored on creation.
+     */
+    private String id;
+
     @Size(max = 500, message = "Option text must not exceed 500 characters")
     private String optionText;
 
@@ -17,6 +17,11 @@ import java.util.List;
 @AllArgsConstructor
 public class QuestionRequestDto {
 
+    /**
+     * Id of an existing question when the request updates a whole exam; ignored on creation.
+     */
+    private String id;
+
     @NotBlank(message = "Question text is required")
     @Size(max = 2000, message = "Question text must not exceed 2000 characters")
     private String questionText;
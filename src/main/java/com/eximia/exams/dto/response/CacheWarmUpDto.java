@@ -0,0 +1,19 @@
+package com.eximia.exams.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheWarmUpDto {
+    private Integer requested;
+    private Integer loaded;
+    private List<String> missingExamIds;
+    private Long durationMillis;
+}
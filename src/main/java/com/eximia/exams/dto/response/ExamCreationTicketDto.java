@@ -0,0 +1,23 @@
+package com.eximia.exams.dto.response;
+
+import com.eximia.exams.domain.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamCreationTicketDto {
+    private String ticketId;
+    private TicketStatus status;
+    private String title;
+    private String examId;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime updatedAt;
+}
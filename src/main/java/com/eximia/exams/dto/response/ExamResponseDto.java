@@ -29,4 +29,9 @@ public class ExamResponseDto {
     private Boolean allowTrueFalse;
     private Double totalPoints;
     private List<String> questionIds;
+
+    /**
+     * Version of the exam when it was read, the ETag of {@code GET /exams/{id}}.
+     */
+    private Long version;
 }
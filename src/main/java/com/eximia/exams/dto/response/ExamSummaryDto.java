@@ -0,0 +1,26 @@
+package com.eximia.exams.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamSummaryDto {
+    private String id;
+    private String title;
+    private String description;
+    private String subject;
+    private String difficultyLevel;
+    private Integer durationInMinutes;
+    private Double passingScore;
+    private Double totalPoints;
+    private Integer questionCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.eximia.exams.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexReportDto {
+    private String collection;
+    private List<String> missing;
+    private List<String> unused;
+    private List<String> unmanaged;
+    private Map<String, Long> accesses;
+}
@@ -0,0 +1,27 @@
+package com.eximia.exams.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryExplanationDto {
+    private String collection;
+    private String filter;
+    private String sort;
+    private String winningPlan;
+    private List<String> indexesUsed;
+    private Boolean collectionScan;
+    private Long returned;
+    private Long keysExamined;
+    private Long docsExamined;
+    private Long executionTimeMillis;
+    private Map<String, Integer> suggestedIndex;
+}
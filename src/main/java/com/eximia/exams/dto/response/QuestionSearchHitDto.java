@@ -0,0 +1,18 @@
+package com.eximia.exams.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionSearchHitDto {
+    private QuestionResponseDto question;
+    private Float score;
+    private Map<String, String> highlights;
+}
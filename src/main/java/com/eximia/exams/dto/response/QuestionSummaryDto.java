@@ -0,0 +1,25 @@
+package com.eximia.exams.dto.response;
+
+import com.eximia.exams.domain.enums.QuestionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionSummaryDto {
+    private String id;
+    private String questionText;
+    private QuestionType questionType;
+    private Double points;
+    private Integer orderIndex;
+    private String examId;
+    private Integer optionCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
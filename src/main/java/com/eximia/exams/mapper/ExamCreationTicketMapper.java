@@ -0,0 +1,12 @@
+package com.eximia.exams.mapper;
+
+import com.eximia.exams.domain.entities.ExamCreationTicket;
+import com.eximia.exams.dto.response.ExamCreationTicketDto;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring")
+public interface ExamCreationTicketMapper {
+
+    @Mapping(target = "ticketId", source = "id")
+    ExamCreationTicketDto toResponseDto(ExamCreationTicket ticket);
+}
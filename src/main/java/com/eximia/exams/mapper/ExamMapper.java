@@ -14,6 +14,7 @@ public interface ExamMapper {
     @Mapping(target = "questionIds", expression = "java(new java.util.ArrayList<>())")
     Exam toEntity(ExamRequestDto requestDto);
 
+    @Mapping(target = "version", ignore = true)
     ExamResponseDto toResponseDto(Exam exam);
 
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
@@ -15,6 +15,7 @@ public interface OptionMapper {
 
     OptionResponseDto toResponseDto(Option option);
 
+    @Mapping(target = "id", ignore = true)
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
     void updateEntity(@MappingTarget Option option, OptionRequestDto requestDto);
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ public interface QuestionMapper {
 
     QuestionResponseDto toResponseDto(Question question);
 
+    @Mapping(target = "id", ignore = true)
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
     void updateEntity(@MappingTarget Question question, QuestionRequestDto requestDto);
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.eximia.exams.mesagging.consumer;
+
+import com.eximia.exams.domain.events.CacheInvalidationMessage;
+import com.eximia.exams.dto.response.CacheWarmUpDto;
+import com.eximia.exams.mesagging.publisher.CacheInvalidationPublisher;
+import com.eximia.exams.service.EncodedExamCache;
+import com.eximia.exams.service.ExamCacheInvalidator;
+import com.eximia.exams.service.ExamWarmUpService;
+import com.eximia.exams.service.OptionListCache;
+import com.eximia.exams.service.QuestionTextSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts what other replicas wrote from the local caches and indexes those exams again in the local
+ * question text index. This replica's own messages are skipped, its listeners already did both when
+ * the write happened.
+ * <p>
+ * Exams preloaded on another replica are preloaded here too, on a thread of their own so invalidations
+ * are not held up behind them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationConsumer {
+
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final ExamCacheInvalidator examCacheInvalidator;
+    private final OptionListCache optionListCache;
+    private final EncodedExamCache encodedExamCache;
+    private final QuestionTextSearchService questionTextSearchService;
+    private final ExamWarmUpService examWarmUpService;
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}", ackMode = "AUTO")
+    public void handleInvalidation(CacheInvalidationMessage message) {
+        if (cacheInvalidationPublisher.getNodeId().equals(message.getOrigin())) {
+            return;
+        }
+
+        if (message.getExamIds() != null) {
+            message.getExamIds().forEach(examId -> {
+                examCacheInvalidator.evict(examId);
+                encodedExamCache.evict(examId);
+            });
+            questionTextSearchService.reindexExams(message.getExamIds());
+        }
+        if (message.getQuestionIds() != null) {
+            optionListCache.evictAll(message.getQuestionIds());
+        }
+        if (message.getWarmUpExamIds() != null) {
+            Thread.ofVirtual().name("cache-warm-up").start(() -> warmUp(message));
+        }
+
+        log.debug("Evicted {} exams and {} questions invalidated by replica {}",
+                message.getExamIds() != null ? message.getExamIds().size() : 0,
+                message.getQuestionIds() != null ? message.getQuestionIds().size() : 0,
+                message.getOrigin());
+    }
+
+    private void warmUp(CacheInvalidationMessage message) {
+        try {
+            CacheWarmUpDto result = examWarmUpService.warmUp(message.getWarmUpExamIds());
+            log.info("Preloaded {} exams requested by replica {} in {} ms",
+                    result.getLoaded(), message.getOrigin(), result.getDurationMillis());
+        } catch (RuntimeException e) {
+            log.warn("Failed to preload the exams requested by replica {}: {}", message.getOrigin(), e.getMessage());
+        }
+    }
+}
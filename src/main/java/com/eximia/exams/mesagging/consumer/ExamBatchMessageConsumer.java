@@ -0,0 +1,298 @@
+package com.eximia.exams.mesagging.consumer;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.service.ExamCreationPipeline;
+import com.eximia.exams.service.ExamCreationPipeline.PreparedExam;
+import com.eximia.exams.service.ExamSubmissionService;
+import com.eximia.exams.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch alternative to {@link ExamMessageConsumer}: validates every message of the batch on its own and
+ * persists the valid ones with one {@code insertMany} per collection.
+ * <p>
+ * Invalid messages are rejected without requeue so they are dead-lettered to {@code exam.failed.queue}
+ * while the rest of the batch is acknowledged. Message ids are claimed as idempotency keys before
+ * anything is written, so a redelivered message is acknowledged without creating its exam twice, and
+ * every message left unsettled by an unexpected failure is requeued.
+ * <p>
+ * A message whose key is held by another consumer, or by an earlier copy in the same batch, is moved
+ * to {@code exam.request.retry.queue} and comes back after its delay, instead of being requeued and
+ * redelivered at once until the holder finishes. By then the key is usually completed and the message
+ * is acknowledged as a replay.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.rabbitmq.batch-consumer.enabled", havingValue = "true")
+public class ExamBatchMessageConsumer {
+
+    private final ExamCreationPipeline examCreationPipeline;
+    private final ExamSubmissionService examSubmissionService;
+    private final IdempotencyService idempotencyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final RabbitTemplate rabbitTemplate;
+
+    @RabbitListener(queues = RabbitConfig.EXAM_REQUEST_QUEUE, containerFactory = "batchRabbitListenerContainerFactory")
+    public void handleExamCreationBatch(List<Message> messages, Channel channel) throws IOException {
+        log.info("Received batch of {} exam creation messages", messages.size());
+
+        Acknowledgements acknowledgements = new Acknowledgements(channel, rabbitTemplate);
+        try {
+            List<Message> accepted = new ArrayList<>();
+            List<PreparedExam> preparedExams = new ArrayList<>();
+
+            for (Message message : messages) {
+                try {
+                    ExamRequestDto examRequestDto = objectMapper.readValue(message.getBody(), ExamRequestDto.class);
+                    preparedExams.add(examCreationPipeline.prepare(examRequestDto));
+                    accepted.add(message);
+                } catch (Exception e) {
+                    reject(acknowledgements, message, e);
+                }
+            }
+
+            process(acknowledgements, accepted, preparedExams);
+        } finally {
+            acknowledgements.requeueUnsettled(messages);
+        }
+
+        log.info("Processed batch of {} exam creation messages", messages.size());
+    }
+
+    private void process(Acknowledgements acknowledgements, List<Message> accepted, List<PreparedExam> preparedExams)
+            throws IOException {
+        Map<String, String> examIdsByKey = new HashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            String key = key(accepted.get(i));
+            if (key != null) {
+                examIdsByKey.putIfAbsent(key, preparedExams.get(i).getExam().getId());
+            }
+        }
+        IdempotencyService.Claims claims = idempotencyService.claimAll(examIdsByKey);
+        Set<String> keysInBatch = new HashSet<>();
+
+        List<Message> toPersist = new ArrayList<>();
+        List<PreparedExam> examsToPersist = new ArrayList<>();
+        List<Message> replayed = new ArrayList<>();
+
+        for (int i = 0; i < accepted.size(); i++) {
+            Message message = accepted.get(i);
+            String key = key(message);
+            if (key != null && claims.completed().containsKey(key)) {
+                replayed.add(message);
+            } else if (key != null && (claims.inProgress().contains(key) || !keysInBatch.add(key))) {
+                log.info("Exam creation message {} is being processed elsewhere, retrying it later", key);
+                acknowledgements.retryLater(message);
+            } else {
+                if (key != null && claims.abandoned().get(key) != null) {
+                    examCreationPipeline.discardOrphans(claims.abandoned().get(key));
+                }
+                toPersist.add(message);
+                examsToPersist.add(preparedExams.get(i));
+            }
+        }
+
+        replay(acknowledgements, replayed, claims.completed());
+
+        if (examsToPersist.isEmpty()) {
+            return;
+        }
+
+        boolean persisted;
+        try {
+            examCreationPipeline.persist(examsToPersist);
+            persisted = true;
+        } catch (Exception e) {
+            log.warn("Bulk insert of {} exams failed, persisting them one by one: {}", examsToPersist.size(), e.getMessage());
+            persisted = false;
+        }
+
+        if (persisted) {
+            completed(acknowledgements, toPersist, examsToPersist);
+        } else {
+            persistIndividually(acknowledgements, toPersist, examsToPersist);
+        }
+    }
+
+    private void persistIndividually(Acknowledgements acknowledgements, List<Message> accepted,
+                                     List<PreparedExam> preparedExams) throws IOException {
+        // An ordered insertMany stops at the first error, so drop whatever made it in before retrying
+        examCreationPipeline.discard(preparedExams);
+
+        List<Message> persisted = new ArrayList<>();
+        List<PreparedExam> persistedExams = new ArrayList<>();
+
+        for (int i = 0; i < preparedExams.size(); i++) {
+            Message message = accepted.get(i);
+            try {
+                examCreationPipeline.persist(List.of(preparedExams.get(i)));
+                persisted.add(message);
+                persistedExams.add(preparedExams.get(i));
+            } catch (Exception e) {
+                // Leave neither questions nor options of the failed exam behind, nor its claim
+                examCreationPipeline.discard(List.of(preparedExams.get(i)));
+                if (key(message) != null) {
+                    idempotencyService.releaseAll(List.of(key(message)));
+                }
+                reject(acknowledgements, message, e);
+            }
+        }
+
+        completed(acknowledgements, persisted, persistedExams);
+    }
+
+    private void completed(Acknowledgements acknowledgements, List<Message> messages, List<PreparedExam> preparedExams)
+            throws IOException {
+        Map<String, String> examIdsByKey = new HashMap<>();
+        Map<String, String> examIdsByTicketId = new HashMap<>();
+
+        for (int i = 0; i < messages.size(); i++) {
+            String examId = preparedExams.get(i).getExam().getId();
+            if (key(messages.get(i)) != null) {
+                examIdsByKey.put(key(messages.get(i)), examId);
+            }
+            if (ticketId(messages.get(i)) != null) {
+                examIdsByTicketId.put(ticketId(messages.get(i)), examId);
+            }
+        }
+
+        try {
+            idempotencyService.completeAll(examIdsByKey);
+            examSubmissionService.markCreated(examIdsByTicketId);
+
+            for (PreparedExam preparedExam : preparedExams) {
+                eventPublisher.publishEvent(ExamChangedEvent.created(examCreationPipeline.toResponseDto(preparedExam)));
+            }
+        } catch (RuntimeException e) {
+            // The exams are written, so a redelivery would only be acknowledged as a replay
+            log.error("Exams were persisted but recording their creation failed: {}", e.getMessage(), e);
+        } finally {
+            for (Message message : messages) {
+                acknowledgements.ack(message);
+            }
+        }
+    }
+
+    private void replay(Acknowledgements acknowledgements, List<Message> messages, Map<String, String> examIdsByKey)
+            throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        log.info("Acknowledging {} exam creation messages that were already processed", messages.size());
+
+        Map<String, String> examIdsByTicketId = new HashMap<>();
+        for (Message message : messages) {
+            if (ticketId(message) != null) {
+                examIdsByTicketId.put(ticketId(message), examIdsByKey.get(key(message)));
+            }
+        }
+
+        try {
+            examSubmissionService.markCreated(examIdsByTicketId);
+        } finally {
+            for (Message message : messages) {
+                acknowledgements.ack(message);
+            }
+        }
+    }
+
+    private void reject(Acknowledgements acknowledgements, Message message, Exception e) throws IOException {
+        log.error("Failed to process exam creation message: {}", e.getMessage(), e);
+        try {
+            examSubmissionService.recordError(ticketId(message), e.getMessage());
+        } finally {
+            acknowledgements.reject(message);
+        }
+    }
+
+    private static String key(Message message) {
+        return message.getMessageProperties().getMessageId();
+    }
+
+    private static String ticketId(Message message) {
+        return message.getMessageProperties().getHeader(RabbitConfig.EXAM_TICKET_HEADER);
+    }
+
+    /**
+     * Settles each message of a batch exactly once, and requeues whatever an exception left unsettled.
+     */
+    private static final class Acknowledgements {
+
+        private final Channel channel;
+        private final RabbitTemplate rabbitTemplate;
+        private final Set<Long> settled = new HashSet<>();
+
+        private Acknowledgements(Channel channel, RabbitTemplate rabbitTemplate) {
+            this.channel = channel;
+            this.rabbitTemplate = rabbitTemplate;
+        }
+
+        void ack(Message message) throws IOException {
+            if (settled.add(deliveryTag(message))) {
+                channel.basicAck(deliveryTag(message), false);
+            }
+        }
+
+        void reject(Message message) throws IOException {
+            if (settled.add(deliveryTag(message))) {
+                channel.basicReject(deliveryTag(message), false);
+            }
+        }
+
+        void requeue(Message message) throws IOException {
+            if (settled.add(deliveryTag(message))) {
+                channel.basicNack(deliveryTag(message), false, true);
+            }
+        }
+
+        /**
+         * Republishes the message to the retry queue, then acknowledges it. If republishing fails it stays
+         * unsettled and is requeued with the rest.
+         */
+        void retryLater(Message message) throws IOException {
+            if (!settled.add(deliveryTag(message))) {
+                return;
+            }
+            try {
+                rabbitTemplate.send("", RabbitConfig.EXAM_REQUEST_RETRY_QUEUE, message);
+            } catch (AmqpException e) {
+                settled.remove(deliveryTag(message));
+                log.warn("Could not delay exam creation message, requeueing it: {}", e.getMessage());
+                return;
+            }
+            channel.basicAck(deliveryTag(message), false);
+        }
+
+        void requeueUnsettled(List<Message> messages) throws IOException {
+            for (Message message : messages) {
+                requeue(message);
+            }
+        }
+
+        private static long deliveryTag(Message message) {
+            return message.getMessageProperties().getDeliveryTag();
+        }
+    }
+}
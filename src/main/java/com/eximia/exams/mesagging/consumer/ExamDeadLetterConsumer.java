@@ -0,0 +1,32 @@
+package com.eximia.exams.mesagging.consumer;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.service.ExamSubmissionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the tickets of exam creation messages that were dead-lettered after exhausting their retries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExamDeadLetterConsumer {
+
+    private final ExamSubmissionService examSubmissionService;
+
+    @RabbitListener(queues = RabbitConfig.EXAM_FAILED_QUEUE, ackMode = "AUTO")
+    public void handleFailedExamCreation(Message message) {
+        String ticketId = message.getMessageProperties().getHeader(RabbitConfig.EXAM_TICKET_HEADER);
+        if (ticketId == null) {
+            log.warn("Received dead-lettered exam creation message without ticket");
+            return;
+        }
+
+        log.warn("Exam creation failed for ticket ID: {}", ticketId);
+        examSubmissionService.markFailed(ticketId, null);
+    }
+}
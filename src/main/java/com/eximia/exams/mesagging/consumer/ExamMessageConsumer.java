@@ -1,29 +1,42 @@
 package com.eximia.exams.mesagging.consumer;
 
+import com.eximia.exams.config.RabbitConfig;
 import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.response.ExamResponseDto;
 import com.eximia.exams.service.ExamService;
+import com.eximia.exams.service.ExamSubmissionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.rabbitmq.batch-consumer.enabled", havingValue = "false", matchIfMissing = true)
 public class ExamMessageConsumer {
 
     private final ExamService examService;
+    private final ExamSubmissionService examSubmissionService;
 
-    @RabbitListener(queues = "exam.request.queue")
-    public void handleExamCreation(ExamRequestDto examRequestDto) {
+    @RabbitListener(queues = RabbitConfig.EXAM_REQUEST_QUEUE, ackMode = "AUTO")
+    public void handleExamCreation(ExamRequestDto examRequestDto,
+                                   @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId,
+                                   @Header(name = RabbitConfig.EXAM_TICKET_HEADER, required = false) String ticketId) {
         try {
             log.info("Received exam creation message for title: {}", examRequestDto.getTitle());
 
-            examService.createExam(examRequestDto);
+            ExamResponseDto responseDto = examService.createExam(examRequestDto, messageId);
+            examSubmissionService.markCreated(ticketId, responseDto.getId());
 
             log.info("Successfully processed exam creation for title: {}", examRequestDto.getTitle());
         } catch (Exception e) {
             log.error("Failed to process exam creation message: {}", e.getMessage(), e);
+            // The ticket stays pending until retries are exhausted and the message reaches the DLX
+            examSubmissionService.recordError(ticketId, e.getMessage());
             throw e;
         }
     }
@@ -0,0 +1,100 @@
+package com.eximia.exams.mesagging.publisher;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.events.CacheInvalidationMessage;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells the other replicas which exams and questions were written on this one, so they evict them from
+ * their local caches, and which exams were preloaded on this one, so they preload them too.
+ * <p>
+ * Changes are collected as they happen and published as one message per flush, so a burst of writes
+ * costs a single message no matter how many exams it touches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<String> pendingExamIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingQuestionIds = ConcurrentHashMap.newKeySet();
+
+    @EventListener
+    @Order(4)
+    public void onExamChanged(ExamChangedEvent event) {
+        pendingExamIds.add(event.getExamId());
+        pendingQuestionIds.addAll(event.getQuestionIds());
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.flush-interval:100}")
+    public void flush() {
+        Set<String> examIds = drain(pendingExamIds);
+        Set<String> questionIds = drain(pendingQuestionIds);
+        if (examIds.isEmpty() && questionIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.CACHE_INVALIDATION_EXCHANGE, "", CacheInvalidationMessage.builder()
+                    .origin(nodeId)
+                    .examIds(examIds)
+                    .questionIds(questionIds)
+                    .build());
+            log.debug("Published invalidation of {} exams and {} questions", examIds.size(), questionIds.size());
+        } catch (AmqpException e) {
+            // Keep them for the next flush; the other replicas serve stale entries until then
+            pendingExamIds.addAll(examIds);
+            pendingQuestionIds.addAll(questionIds);
+            log.warn("Failed to publish cache invalidation, retrying on next flush: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Asks every other replica to preload {@code examIds}. Sent right away, the caller is waiting for
+     * its own replica to load them meanwhile.
+     */
+    public void publishWarmUp(Collection<String> examIds) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.CACHE_INVALIDATION_EXCHANGE, "", CacheInvalidationMessage.builder()
+                    .origin(nodeId)
+                    .warmUpExamIds(new HashSet<>(examIds))
+                    .build());
+            log.debug("Published preload of {} exams", examIds.size());
+        } catch (AmqpException e) {
+            // Only this replica gets warm, the others load the exams on their first reads
+            log.warn("Failed to publish cache warm-up to the other replicas: {}", e.getMessage());
+        }
+    }
+
+    private static Set<String> drain(Set<String> pending) {
+        Set<String> drained = new HashSet<>();
+        for (Iterator<String> iterator = pending.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+}
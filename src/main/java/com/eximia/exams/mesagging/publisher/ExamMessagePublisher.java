@@ -15,13 +15,27 @@ public class ExamMessagePublisher {
     private final RabbitTemplate rabbitTemplate;
 
     public void publishExamCreation(ExamRequestDto examRequestDto) {
+        publishExamCreation(examRequestDto, null);
+    }
+
+    /**
+     * Publishes the exam for creation, tagging the message with the ticket the consumer has to update.
+     */
+    public void publishExamCreation(ExamRequestDto examRequestDto, String ticketId) {
         try {
             log.info("Publishing exam creation message for title: {}", examRequestDto.getTitle());
 
             rabbitTemplate.convertAndSend(
                     RabbitConfig.EXAM_EXCHANGE,
-                    RabbitConfig.EXAM_ROUTING_KEY,
-                    examRequestDto
+                    RabbitConfig.EXAM_REQUEST_ROUTING_KEY,
+                    examRequestDto,
+                    message -> {
+                        if (ticketId != null) {
+                            message.getMessageProperties().setMessageId(ticketId);
+                            message.getMessageProperties().setHeader(RabbitConfig.EXAM_TICKET_HEADER, ticketId);
+                        }
+                        return message;
+                    }
             );
 
             log.info("Successfully published exam creation message for title: {}", examRequestDto.getTitle());
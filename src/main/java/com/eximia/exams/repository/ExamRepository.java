@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -27,7 +28,13 @@ public interface ExamRepository extends MongoRepository<Exam, String> {
 
     Optional<Exam> findById(String id);
 
-    boolean existsByTitleAndCreatedBy(String title, String createdBy);
-
     List<Exam> findBySubject(String subject);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$addToSet': { 'question_ids': ?1 } }")
+    void addQuestionId(String examId, String questionId);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$pull': { 'question_ids': ?1 } }")
+    void removeQuestionId(String examId, String questionId);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,8 @@ public interface OptionRepository extends MongoRepository<Option, String> {
 
     List<Option> findByQuestionIdOrderByOrderIndexAsc(String questionId);
 
+    List<Option> findByQuestionIdInOrderByQuestionIdAscOrderIndexAsc(Collection<String> questionIds);
+
     List<Option> findByCreatedBy(String createdBy);
 
     @Query("{ 'questionId': ?0, 'isCorrect': true }")
@@ -6,8 +6,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +20,8 @@ public interface QuestionRepository extends MongoRepository<Question, String> {
 
     List<Question> findByExamIdOrderByOrderIndexAsc(String examId);
 
+    List<Question> findByExamIdInOrderByExamIdAscOrderIndexAsc(Collection<String> examIds);
+
     List<Question> findByCreatedBy(String createdBy);
 
     List<Question> findByQuestionType(QuestionType questionType);
@@ -44,4 +48,16 @@ public interface QuestionRepository extends MongoRepository<Question, String> {
 
     @Query("{ 'examId': ?0, 'isRequired': true }")
     long countRequiredByExamId(String examId);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$addToSet': { 'option_ids': ?1 } }")
+    void addOptionId(String questionId, String optionId);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$pull': { 'option_ids': ?1 } }")
+    void removeOptionId(String questionId, String optionId);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'option_ids': [] } }")
+    void clearOptionIds(String questionId);
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.exception.CustomException;
+import com.eximia.exams.service.CriteriaSpec.FieldSpec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles criteria objects into a single flat filter following their {@link CriteriaSpec}.
+ * <p>
+ * The first clause on each field goes straight into the filter, so it is one document rather than an
+ * {@code $and} of single-clause documents, and {@code $text} always ends up at its top level. A document
+ * cannot hold the same field twice, so further clauses on a field, such as a title regex next to a
+ * title prefix, go under {@code $and}. Patterns are compiled once per distinct value and reused.
+ */
+@Component
+public class CriteriaCompiler {
+
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final long PATTERN_CACHE_SIZE = 1000;
+
+    private final Cache<String, Pattern> patterns = Caffeine.newBuilder()
+            .maximumSize(PATTERN_CACHE_SIZE)
+            .build();
+
+    /**
+     * Returns the filter for {@code criteria}, or {@code null} when none of its properties is set.
+     */
+    public <C> Criteria compile(CriteriaSpec<C> spec, C criteria) {
+        boolean regex = spec.isRegex(criteria);
+        String terms = null;
+        List<String> phrases = new ArrayList<>();
+        Criteria filter = null;
+        Set<String> fields = new HashSet<>();
+        List<Criteria> repeated = new ArrayList<>();
+
+        for (FieldSpec<C> fieldSpec : spec.template(criteria)) {
+            Object value = fieldSpec.value().apply(criteria);
+
+            switch (fieldSpec.kind()) {
+                case EXACT -> filter = head(filter, on(filter, fieldSpec.field(), fields, repeated).is(value));
+                case RANGE -> {
+                    Criteria range = on(filter, fieldSpec.field(), fields, repeated);
+                    if (CriteriaSpec.isPresent(value)) {
+                        range.gte(value);
+                    }
+                    Object upperBound = fieldSpec.upperBound().apply(criteria);
+                    if (CriteriaSpec.isPresent(upperBound)) {
+                        range.lte(upperBound);
+                    }
+                    filter = head(filter, range);
+                }
+                case PREFIX -> filter = head(filter,
+                        on(filter, fieldSpec.field(), fields, repeated).regex(prefix((String) value)));
+                case TEXT -> {
+                    if (regex) {
+                        filter = head(filter,
+                                on(filter, fieldSpec.field(), fields, repeated).regex(regex((String) value)));
+                    } else {
+                        phrases.add((String) value);
+                    }
+                }
+                case SEARCH -> {
+                    if (regex) {
+                        Pattern pattern = regex((String) value);
+                        Criteria[] alternatives = fieldSpec.fields().stream()
+                                .map(field -> Criteria.where(field).regex(pattern))
+                                .toArray(Criteria[]::new);
+                        filter = filter == null ? new Criteria().orOperator(alternatives) : filter.orOperator(alternatives);
+                    } else {
+                        terms = (String) value;
+                    }
+                }
+            }
+        }
+
+        if (!repeated.isEmpty()) {
+            filter = filter.andOperator(repeated);
+        }
+
+        Document textFilter = TextSearch.textFilter(terms, phrases);
+        if (textFilter != null) {
+            filter = on(filter, TextSearch.TEXT).is(textFilter);
+        }
+
+        return filter;
+    }
+
+    /**
+     * Anchored, case-insensitive match of {@code value} taken literally.
+     */
+    Pattern prefix(String value) {
+        return patterns.get("^" + value, key -> Pattern.compile("^" + escape(value), Pattern.CASE_INSENSITIVE));
+    }
+
+    /**
+     * Case-insensitive regular expression given by the caller, rejected as a bad request when invalid.
+     */
+    Pattern regex(String value) {
+        return patterns.get("~" + value, key -> {
+            try {
+                return Pattern.compile(value, Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                throw new CustomException("Invalid regular expression: " + value);
+            }
+        });
+    }
+
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static Criteria on(Criteria filter, String field) {
+        return filter == null ? Criteria.where(field) : filter.and(field);
+    }
+
+    /**
+     * Chains the first clause on {@code field} to the filter, and sets any later one aside in
+     * {@code repeated} to be added under {@code $and}.
+     */
+    private static Criteria on(Criteria filter, String field, Set<String> fields, List<Criteria> repeated) {
+        if (fields.add(field)) {
+            return on(filter, field);
+        }
+
+        Criteria clause = Criteria.where(field);
+        repeated.add(clause);
+        return clause;
+    }
+
+    /**
+     * Criteria chain through their first element, which is the one to keep once it exists.
+     */
+    private static Criteria head(Criteria filter, Criteria added) {
+        return filter == null ? added : filter;
+    }
+}
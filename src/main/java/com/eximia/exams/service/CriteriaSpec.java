@@ -0,0 +1,121 @@
+package com.eximia.exams.service;
+
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Declares how the properties of a criteria object map to document fields, for {@link CriteriaCompiler}.
+ * <ul>
+ *     <li>{@code exact}: equality on the field.</li>
+ *     <li>{@code range}: inclusive bounds on the field, either of which may be absent.</li>
+ *     <li>{@code prefix}: anchored, case-insensitive match of the escaped value.</li>
+ *     <li>{@code text}: a phrase of the {@code $text} search, or the value as a regex in regex mode.</li>
+ *     <li>{@code search}: the words of the {@code $text} search, or a regex over several fields in regex mode.</li>
+ * </ul>
+ * Which properties are set, plus the regex flag, make up the shape of a criteria object. The clauses
+ * for each shape are worked out once and reused for every criteria object of that shape.
+ */
+public final class CriteriaSpec<C> {
+
+    private static final int MAX_FIELDS = 63;
+
+    enum Kind {
+        EXACT,
+        RANGE,
+        PREFIX,
+        TEXT,
+        SEARCH
+    }
+
+    record FieldSpec<C>(Kind kind, List<String> fields, Function<C, ?> value, Function<C, ?> upperBound) {
+
+        String field() {
+            return fields.get(0);
+        }
+    }
+
+    private final List<FieldSpec<C>> fieldSpecs = new ArrayList<>();
+    private final Map<Long, List<FieldSpec<C>>> templates = new ConcurrentHashMap<>();
+    private Function<C, Boolean> regexFlag = criteria -> false;
+
+    private CriteriaSpec() {
+    }
+
+    public static <C> CriteriaSpec<C> of(Class<C> criteriaClass) {
+        return new CriteriaSpec<>();
+    }
+
+    public CriteriaSpec<C> exact(String field, Function<C, ?> value) {
+        return add(new FieldSpec<>(Kind.EXACT, List.of(field), value, null));
+    }
+
+    public CriteriaSpec<C> range(String field, Function<C, ?> from, Function<C, ?> to) {
+        return add(new FieldSpec<>(Kind.RANGE, List.of(field), from, to));
+    }
+
+    public CriteriaSpec<C> prefix(String field, Function<C, String> value) {
+        return add(new FieldSpec<>(Kind.PREFIX, List.of(field), value, null));
+    }
+
+    public CriteriaSpec<C> text(String field, Function<C, String> value) {
+        return add(new FieldSpec<>(Kind.TEXT, List.of(field), value, null));
+    }
+
+    public CriteriaSpec<C> search(Function<C, String> value, String... fields) {
+        return add(new FieldSpec<>(Kind.SEARCH, List.of(fields), value, null));
+    }
+
+    /**
+     * Switches text and search properties to case-insensitive regular expressions when the flag is set.
+     */
+    public CriteriaSpec<C> regexFlag(Function<C, Boolean> flag) {
+        this.regexFlag = flag;
+        return this;
+    }
+
+    boolean isRegex(C criteria) {
+        return Boolean.TRUE.equals(regexFlag.apply(criteria));
+    }
+
+    /**
+     * The field specs that apply to {@code criteria}, cached by shape.
+     */
+    List<FieldSpec<C>> template(C criteria) {
+        long shape = isRegex(criteria) ? 1L << MAX_FIELDS : 0L;
+        for (int i = 0; i < fieldSpecs.size(); i++) {
+            FieldSpec<C> fieldSpec = fieldSpecs.get(i);
+            if (isPresent(fieldSpec.value().apply(criteria))
+                    || (fieldSpec.upperBound() != null && isPresent(fieldSpec.upperBound().apply(criteria)))) {
+                shape |= 1L << i;
+            }
+        }
+
+        long key = shape;
+        return templates.computeIfAbsent(key, ignored -> {
+            List<FieldSpec<C>> template = new ArrayList<>();
+            for (int i = 0; i < fieldSpecs.size(); i++) {
+                if ((key & (1L << i)) != 0) {
+                    template.add(fieldSpecs.get(i));
+                }
+            }
+            return List.copyOf(template);
+        });
+    }
+
+    static boolean isPresent(Object value) {
+        return value instanceof String text ? StringUtils.hasText(text) : value != null;
+    }
+
+    private CriteriaSpec<C> add(FieldSpec<C> fieldSpec) {
+        if (fieldSpecs.size() == MAX_FIELDS) {
+            throw new IllegalStateException("A criteria spec supports at most " + MAX_FIELDS + " fields");
+        }
+        fieldSpecs.add(fieldSpec);
+        return this;
+    }
+}
@@ -0,0 +1,159 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized JSON of {@code GET /exams/{id}} responses in direct buffers, outside the heap,
+ * so large exams are neither re-serialized on every read nor kept in the old generation.
+ * <p>
+ * Entries are tagged with the exam version they were serialized at and only served for that version.
+ * The cache is bounded by the total size of the stored bytes, and every {@link ExamChangedEvent} evicts
+ * the exam it names to release its memory early.
+ */
+@Slf4j
+@Component
+public class EncodedExamCache {
+
+    public static final String ENCODED_EXAMS_CACHE = "encoded-exams";
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final boolean enabled;
+    private final boolean gzip;
+    private final Cache<String, EncodedExam> entries;
+
+    public EncodedExamCache(@Value("${app.cache.encoded-exams.enabled:false}") boolean enabled,
+                            @Value("${app.cache.encoded-exams.max-size:256MB}") DataSize maxSize,
+                            @Value("${app.cache.encoded-exams.gzip:true}") boolean gzip,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String examId, EncodedExam encodedExam) -> encodedExam.size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, ENCODED_EXAMS_CACHE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The stored response of the exam, if it was serialized at {@code version}.
+     */
+    public Optional<EncodedExam> find(String examId, long version) {
+        return Optional.ofNullable(entries.getIfPresent(examId))
+                .filter(encodedExam -> encodedExam.version() == version);
+    }
+
+    /**
+     * Copies {@code json} off-heap, compressed when gzip is enabled, and stores it for {@code version}.
+     */
+    public EncodedExam put(String examId, long version, byte[] json) {
+        byte[] encoded = gzip ? compress(json) : json;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length);
+        buffer.put(encoded).flip();
+
+        EncodedExam encodedExam = new EncodedExam(version, buffer.asReadOnlyBuffer(), gzip);
+        entries.put(examId, encodedExam);
+        log.debug("Cached {} bytes of exam with ID: {} at version {}", encoded.length, examId, version);
+        return encodedExam;
+    }
+
+    public void evict(String examId) {
+        entries.invalidate(examId);
+    }
+
+    @EventListener
+    @Order(2)
+    public void onExamChanged(ExamChangedEvent event) {
+        evict(event.getExamId());
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * A serialized exam response; {@code bytes} is read-only and shared, so readers work on duplicates.
+     */
+    public record EncodedExam(long version, ByteBuffer bytes, boolean gzipped) {
+
+        public int size() {
+            return bytes.capacity();
+        }
+
+        /**
+         * Writes the response as is when {@code gzipAccepted}, otherwise decompressed if it was stored gzipped.
+         */
+        public void writeTo(OutputStream outputStream, boolean gzipAccepted) throws IOException {
+            if (!gzipped || gzipAccepted) {
+                ByteBuffer source = bytes.duplicate();
+                byte[] chunk = new byte[Math.min(CHUNK_SIZE, source.remaining())];
+                while (source.hasRemaining()) {
+                    int length = Math.min(chunk.length, source.remaining());
+                    source.get(chunk, 0, length);
+                    outputStream.write(chunk, 0, length);
+                }
+                return;
+            }
+
+            try (InputStream json = new GZIPInputStream(new ByteBufferInputStream(bytes.duplicate()), CHUNK_SIZE)) {
+                json.transferTo(outputStream);
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer source;
+
+        private ByteBufferInputStream(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            return source.hasRemaining() ? source.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!source.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, source.remaining());
+            source.get(target, offset, read);
+            return read;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.ExamAccessStats;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Counts reads of each exam and persists the counts in {@code exam_access_stats}, so a starting replica
+ * knows which exams to preload.
+ * <p>
+ * Reads only touch an in-memory counter; the counts collected since the last flush are written as one
+ * unordered bulk of {@code $inc} upserts, one per exam read in between.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExamAccessTracker {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    public void record(String examId) {
+        pendingCounts.computeIfAbsent(examId, key -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.warm-up.access.flush-interval:60000}")
+    public void flush() {
+        Map<String, Long> counts = drain();
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExamAccessStats.class);
+        counts.forEach((examId, count) -> bulkOps.upsert(
+                Query.query(where("id").is(examId)),
+                new Update().inc("count", count).set("last_accessed_at", now)));
+
+        try {
+            bulkOps.execute();
+            log.debug("Recorded reads of {} exams", counts.size());
+        } catch (DataAccessException e) {
+            // Keep them for the next flush; nothing but the ranking depends on them
+            counts.forEach((examId, count) -> pendingCounts.computeIfAbsent(examId, key -> new LongAdder()).add(count));
+            log.warn("Failed to record exam reads, retrying on next flush: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ids of the {@code limit} most read exams among those read within {@code window}, most read first.
+     */
+    public List<String> findMostAccessed(int limit, Duration window) {
+        Query query = Query.query(where("last_accessed_at").gte(LocalDateTime.now().minus(window)))
+                .with(Sort.by(Sort.Direction.DESC, "count"))
+                .limit(limit);
+        query.fields().include("id");
+
+        return mongoTemplate.find(query, ExamAccessStats.class).stream()
+                .map(ExamAccessStats::getId)
+                .toList();
+    }
+
+    @EventListener
+    @Order(2)
+    public void onExamChanged(ExamChangedEvent event) {
+        if (event.getChangeType() == ExamChangedEvent.ChangeType.DELETED) {
+            pendingCounts.remove(event.getExamId());
+            mongoTemplate.remove(Query.query(where("id").is(event.getExamId())), ExamAccessStats.class);
+        }
+    }
+
+    // A read racing the drain of its exam may go uncounted, which the ranking tolerates
+    private Map<String, Long> drain() {
+        Map<String, Long> drained = new HashMap<>();
+        for (Iterator<Map.Entry<String, LongAdder>> iterator = pendingCounts.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, LongAdder> entry = iterator.next();
+            iterator.remove();
+            drained.put(entry.getKey(), entry.getValue().sum());
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,50 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.CacheConfig;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the cached exam whenever the exam, one of its questions or one of its options is written.
+ * Runs after {@link ExamViewService}, so a miss right after the eviction reads the refreshed view, or the
+ * source collections when the view was dropped.
+ * <p>
+ * In-flight loads of the exam are detached before any other listener runs, so neither the view refresh
+ * nor later readers join a load that started before the write.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExamCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final SingleFlight singleFlight;
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void forgetInFlightLoads(ExamChangedEvent event) {
+        singleFlight.forget(CacheConfig.EXAM_LOADS, event.getExamId());
+        singleFlight.forget(CacheConfig.EXAM_QUESTION_LOADS, event.getExamId());
+    }
+
+    @EventListener
+    @Order(2)
+    public void onExamChanged(ExamChangedEvent event) {
+        evict(event.getExamId());
+    }
+
+    public void evict(String examId) {
+        Cache cache = cacheManager.getCache(CacheConfig.EXAMS_CACHE);
+        if (cache != null) {
+            cache.evict(examId);
+            log.debug("Evicted cached exam with ID: {}", examId);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.request.OptionRequestDto;
+import com.eximia.exams.dto.request.QuestionRequestDto;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.mapper.ExamMapper;
+import com.eximia.exams.mapper.OptionMapper;
+import com.eximia.exams.mapper.QuestionMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Creates whole exam trees (exam, questions and options) with a fixed number of round trips.
+ * <p>
+ * Ids are assigned client-side so every collection can be written with a single {@code insertMany},
+ * and the response is built from the in-memory tree instead of re-reading what was just written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExamCreationPipeline {
+
+    private static final double MAX_POINTS = 100.0;
+
+    private static final Comparator<Integer> ORDER_INDEX = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final MongoTemplate mongoTemplate;
+    private final ExamMapper examMapper;
+    private final QuestionMapper questionMapper;
+    private final OptionMapper optionMapper;
+    private final QuestionValidationFactory questionValidationFactory;
+    private final PointsDistributionService pointsDistributionService;
+
+    /**
+     * Distributes the points of the request and validates every question, without building anything.
+     */
+    public void validate(ExamRequestDto examRequestDto) {
+        pointsDistributionService.distributeExamPoints(examRequestDto);
+
+        for (QuestionRequestDto questionRequestDto : examRequestDto.getQuestions()) {
+            questionValidationFactory.forType(questionRequestDto.getQuestionType()).validate(questionRequestDto);
+            // distributeExamPoints skips the options when the questions already add up to the total
+            pointsDistributionService.distributeQuestionPoints(questionRequestDto);
+        }
+    }
+
+    /**
+     * Validates the request, distributes its points and builds the entities with pre-assigned ids.
+     * Nothing is written to the database.
+     */
+    public PreparedExam prepare(ExamRequestDto examRequestDto) {
+        validate(examRequestDto);
+
+        Exam exam = examMapper.toEntity(examRequestDto);
+        exam.setId(newId());
+        exam.setTotalPoints(MAX_POINTS);
+
+        List<String> questionIds = new ArrayList<>();
+        List<Question> questions = new ArrayList<>();
+        List<Option> options = new ArrayList<>();
+
+        for (QuestionRequestDto questionRequestDto : examRequestDto.getQuestions()) {
+            Question question = questionMapper.toEntity(questionRequestDto);
+            question.setId(newId());
+            question.setExamId(exam.getId());
+
+            List<String> optionIds = new ArrayList<>();
+            for (OptionRequestDto optionRequestDto : questionRequestDto.getOptions()) {
+                Option option = optionMapper.toEntity(optionRequestDto);
+                option.setId(newId());
+                option.setQuestionId(question.getId());
+                optionIds.add(option.getId());
+                options.add(option);
+            }
+
+            question.setOptionIds(optionIds);
+            questionIds.add(question.getId());
+            questions.add(question);
+        }
+
+        exam.setQuestionIds(questionIds);
+
+        return new PreparedExam(exam, questions, options);
+    }
+
+    /**
+     * Writes the prepared exams with one {@code insertMany} per collection, regardless of how many
+     * exams, questions or options are in the batch. Exams are written last, so an exam that exists has
+     * its whole tree written.
+     */
+    public void persist(List<PreparedExam> preparedExams) {
+        if (preparedExams.isEmpty()) {
+            return;
+        }
+
+        List<Exam> exams = new ArrayList<>();
+        List<Question> questions = new ArrayList<>();
+        List<Option> options = new ArrayList<>();
+
+        for (PreparedExam preparedExam : preparedExams) {
+            exams.add(preparedExam.getExam());
+            questions.addAll(preparedExam.getQuestions());
+            options.addAll(preparedExam.getOptions());
+        }
+
+        if (!questions.isEmpty()) {
+            mongoTemplate.insert(questions, Question.class);
+        }
+        if (!options.isEmpty()) {
+            mongoTemplate.insert(options, Option.class);
+        }
+        mongoTemplate.insert(exams, Exam.class);
+
+        log.debug("Persisted {} exams, {} questions and {} options", exams.size(), questions.size(), options.size());
+    }
+
+    /**
+     * Removes whatever part of the prepared exams was written, so a failed batch can be persisted again
+     * exam by exam without running into its own ids.
+     */
+    public void discard(List<PreparedExam> preparedExams) {
+        List<String> examIds = new ArrayList<>();
+        List<String> questionIds = new ArrayList<>();
+        List<String> optionIds = new ArrayList<>();
+
+        for (PreparedExam preparedExam : preparedExams) {
+            examIds.add(preparedExam.getExam().getId());
+            preparedExam.getQuestions().forEach(question -> questionIds.add(question.getId()));
+            preparedExam.getOptions().forEach(option -> optionIds.add(option.getId()));
+        }
+
+        mongoTemplate.remove(Query.query(Criteria.where("id").in(optionIds)), Option.class);
+        mongoTemplate.remove(Query.query(Criteria.where("id").in(questionIds)), Question.class);
+        mongoTemplate.remove(Query.query(Criteria.where("id").in(examIds)), Exam.class);
+    }
+
+    /**
+     * Removes the questions and options an earlier attempt wrote for an exam it never got to write,
+     * knowing only the id it had prepared for the exam.
+     */
+    public void discardOrphans(String examId) {
+        Query questionsOfExam = Query.query(Criteria.where("exam_id").is(examId));
+        questionsOfExam.fields().include("id");
+        List<String> questionIds = mongoTemplate.find(questionsOfExam, Question.class).stream()
+                .map(Question::getId)
+                .collect(Collectors.toList());
+
+        if (!questionIds.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("question_id").in(questionIds)), Option.class);
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(questionIds)), Question.class);
+        }
+    }
+
+    /**
+     * Builds the response from the in-memory tree, ordered the same way as a read from the database.
+     */
+    public ExamResponseDto toResponseDto(PreparedExam preparedExam) {
+        Map<String, List<Option>> optionsByQuestionId = preparedExam.getOptions().stream()
+                .collect(Collectors.groupingBy(Option::getQuestionId));
+
+        List<QuestionResponseDto> questionDtos = preparedExam.getQuestions().stream()
+                .sorted(Comparator.comparing(Question::getOrderIndex, ORDER_INDEX))
+                .map(question -> {
+                    QuestionResponseDto questionDto = questionMapper.toResponseDto(question);
+                    questionDto.setOptions(optionsByQuestionId.getOrDefault(question.getId(), List.of()).stream()
+                            .sorted(Comparator.comparing(Option::getOrderIndex, ORDER_INDEX))
+                            .map(optionMapper::toResponseDto)
+                            .collect(Collectors.toList()));
+                    return questionDto;
+                })
+                .collect(Collectors.toList());
+
+        ExamResponseDto responseDto = examMapper.toResponseDto(preparedExam.getExam());
+        responseDto.setQuestions(questionDtos);
+        return responseDto;
+    }
+
+    private static String newId() {
+        return new ObjectId().toHexString();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PreparedExam {
+        private final Exam exam;
+        private final List<Question> questions;
+        private final List<Option> options;
+    }
+}
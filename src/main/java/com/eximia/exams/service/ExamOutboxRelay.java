@@ -0,0 +1,186 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.entities.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} in batches: every batch is published on one channel, the relay waits for
+ * the broker to confirm all of it and only then removes it from the outbox.
+ * <p>
+ * Delivery is at-least-once. A batch that is not confirmed stays in the outbox and is published again
+ * on the next run.
+ * <p>
+ * Every replica runs the relay, so a batch is first claimed with a lease: a conditional update stamps
+ * the events that are unclaimed or whose lease expired, and only the events carrying this run's stamp
+ * are published. A relay that dies mid-batch leaves its events to whoever claims them after the lease.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true")
+public class ExamOutboxRelay {
+
+    private final MongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final int batchSize;
+    private final long confirmTimeout;
+    private final Duration lease;
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public ExamOutboxRelay(MongoTemplate mongoTemplate,
+                           RabbitTemplate rabbitTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                           @Value("${app.outbox.relay.confirm-timeout:5000}") long confirmTimeout,
+                           @Value("${app.outbox.relay.lease:30s}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.lease = lease;
+
+        this.publishedCounter = Counter.builder("exams.outbox.relay.published")
+                .description("Outbox events confirmed by the broker")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("exams.outbox.relay.failures")
+                .description("Outbox batches that could not be published")
+                .register(meterRegistry);
+        Gauge.builder("exams.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be relayed")
+                .register(meterRegistry);
+        Gauge.builder("exams.outbox.relay.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age in seconds of the oldest outbox event waiting to be relayed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:1000}")
+    public void relay() {
+        String claim = null;
+        try {
+            List<OutboxEvent> batch;
+            do {
+                claim = UUID.randomUUID().toString();
+                batch = claimBatch(claim);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                publish(batch);
+                mongoTemplate.remove(Query.query(Criteria.where("id").in(batch.stream().map(OutboxEvent::getId).toList())),
+                        OutboxEvent.class);
+                publishedCounter.increment(batch.size());
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.warn("Failed to relay outbox events, retrying on next run: {}", e.getMessage());
+            release(claim);
+        } finally {
+            updateBacklogMetrics();
+        }
+    }
+
+    /**
+     * Stamps up to a batch of claimable events with {@code claim} and returns those this run won.
+     */
+    private List<OutboxEvent> claimBatch(String claim) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Query candidates = Query.query(claimable(now))
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(batchSize);
+        candidates.fields().include("id");
+        List<String> ids = mongoTemplate.find(candidates, OutboxEvent.class).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        mongoTemplate.updateMulti(Query.query(new Criteria().andOperator(Criteria.where("id").in(ids), claimable(now))),
+                new Update().set("claimed_by", claim).set("claimed_until", now.plus(lease)),
+                OutboxEvent.class);
+
+        return mongoTemplate.find(Query.query(Criteria.where("claimed_by").is(claim))
+                .with(Sort.by(Sort.Direction.ASC, "id")), OutboxEvent.class);
+    }
+
+    private static Criteria claimable(LocalDateTime now) {
+        return new Criteria().orOperator(
+                Criteria.where("claimed_until").is(null),
+                Criteria.where("claimed_until").lt(now));
+    }
+
+    /**
+     * Gives up the lease of a failed batch, so the next run retries it without waiting for it to expire.
+     */
+    private void release(String claim) {
+        if (claim == null) {
+            return;
+        }
+        try {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("claimed_by").is(claim)),
+                    new Update().unset("claimed_by").unset("claimed_until"),
+                    OutboxEvent.class);
+        } catch (Exception e) {
+            log.debug("Could not release outbox claim {}, it expires with its lease: {}", claim, e.getMessage());
+        }
+    }
+
+    private List<OutboxEvent> oldest() {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(1);
+        return mongoTemplate.find(query, OutboxEvent.class);
+    }
+
+    private void publish(List<OutboxEvent> batch) {
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                operations.convertAndSend(RabbitConfig.EXAM_EXCHANGE, event.getRoutingKey(), event.getMessage(), message -> {
+                    message.getMessageProperties().setMessageId(event.getId());
+                    return message;
+                });
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout);
+            return null;
+        });
+
+        log.debug("Relayed {} outbox events", batch.size());
+    }
+
+    private void updateBacklogMetrics() {
+        try {
+            List<OutboxEvent> oldest = oldest();
+            lagMillis.set(oldest.isEmpty()
+                    ? 0
+                    : Math.max(0, Duration.between(oldest.get(0).getCreatedAt(), LocalDateTime.now()).toMillis()));
+            pending.set(mongoTemplate.estimatedCount(OutboxEvent.class));
+        } catch (Exception e) {
+            log.debug("Could not update outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+}
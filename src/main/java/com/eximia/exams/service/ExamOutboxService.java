@@ -0,0 +1,102 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.entities.OutboxEvent;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.domain.events.ExamLifecycleMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records every exam write in the {@code outbox_events} collection, on the writing thread and right
+ * after the write itself. Publishing to RabbitMQ is left to {@link ExamOutboxRelay}, so a slow broker
+ * never adds latency to the REST path.
+ * <p>
+ * The write has already happened when the event arrives, so a failed insert is logged and retried on a
+ * schedule instead of failing the write and stopping the cache and version listeners that follow.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExamOutboxService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Queue<OutboxEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.outbox.enabled:false}")
+    private boolean enabled;
+
+    @EventListener
+    @Order(1)
+    public void onExamChanged(ExamChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        // Ids are ObjectIds, so the relay drains the outbox in insertion order by sorting on _id
+        String eventId = new ObjectId().toHexString();
+        LocalDateTime now = LocalDateTime.now();
+
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .id(eventId)
+                .routingKey(routingKey(event.getChangeType()))
+                .message(ExamLifecycleMessage.builder()
+                        .eventId(eventId)
+                        .eventType(event.getChangeType())
+                        .examId(event.getExamId())
+                        .questionIds(event.getQuestionIds())
+                        .exam(event.getSnapshot())
+                        .occurredAt(now)
+                        .build())
+                .createdAt(now)
+                .build();
+
+        try {
+            mongoTemplate.insert(outboxEvent);
+            log.debug("Recorded {} outbox event for exam ID: {}", event.getChangeType(), event.getExamId());
+        } catch (RuntimeException e) {
+            pendingEvents.add(outboxEvent);
+            log.error("Failed to record {} outbox event for exam ID {}, retrying on next attempt: {}",
+                    event.getChangeType(), event.getExamId(), e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.retry-interval:1000}")
+    public void retryPending() {
+        for (int remaining = pendingEvents.size(); remaining > 0; remaining--) {
+            OutboxEvent outboxEvent = pendingEvents.poll();
+            if (outboxEvent == null) {
+                return;
+            }
+            try {
+                mongoTemplate.insert(outboxEvent);
+            } catch (DuplicateKeyException e) {
+                // The failed attempt reached the database after all
+                log.debug("Outbox event {} was already recorded", outboxEvent.getId());
+            } catch (RuntimeException e) {
+                pendingEvents.add(outboxEvent);
+                log.warn("Failed to record outbox event {}, retrying on next attempt: {}", outboxEvent.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private static String routingKey(ExamChangedEvent.ChangeType changeType) {
+        return switch (changeType) {
+            case CREATED -> RabbitConfig.EXAM_CREATED_ROUTING_KEY;
+            case UPDATED -> RabbitConfig.EXAM_UPDATED_ROUTING_KEY;
+            case DELETED -> RabbitConfig.EXAM_DELETED_ROUTING_KEY;
+        };
+    }
+}
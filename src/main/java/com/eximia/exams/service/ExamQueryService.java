@@ -1,25 +1,31 @@
 package com.eximia.exams.service;
 
 import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.dto.response.CursorSliceDto;
 import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.ExamSummaryDto;
+import com.eximia.exams.dto.response.QueryExplanationDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
 import com.eximia.exams.mapper.ExamMapper;
 import com.eximia.exams.repository.ExamRepository;
 import com.eximia.exams.dto.criteria.ExamCriteria;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,144 +34,150 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ExamQueryService {
 
+    // Properties every exam has a value for, the only ones a keyset can resume after
+    private static final Set<String> SCROLL_SORTS = Set.of("title", "createdAt", "updatedAt", "totalPoints");
+
+    private static final CriteriaSpec<ExamCriteria> CRITERIA_SPEC = CriteriaSpec.of(ExamCriteria.class)
+            .exact("id", ExamCriteria::getId)
+            .text("title", ExamCriteria::getTitle)
+            .prefix("title", ExamCriteria::getTitlePrefix)
+            .text("description", ExamCriteria::getDescription)
+            .exact("subject", ExamCriteria::getSubject)
+            .exact("difficulty_level", ExamCriteria::getDifficultyLevel)
+            .exact("created_by", ExamCriteria::getCreatedBy)
+            .exact("updated_by", ExamCriteria::getUpdatedBy)
+            .range("created_at", ExamCriteria::getCreatedAtFrom, ExamCriteria::getCreatedAtTo)
+            .range("updated_at", ExamCriteria::getUpdatedAtFrom, ExamCriteria::getUpdatedAtTo)
+            .range("duration_minutes", ExamCriteria::getDurationInMinutesMin, ExamCriteria::getDurationInMinutesMax)
+            .range("passing_score", ExamCriteria::getPassingScoreMin, ExamCriteria::getPassingScoreMax)
+            .range("total_points", ExamCriteria::getTotalPointsMin, ExamCriteria::getTotalPointsMax)
+            .exact("allow_multiple_choice", ExamCriteria::getAllowMultipleChoice)
+            .exact("allow_true_false", ExamCriteria::getAllowTrueFalse)
+            .search(ExamCriteria::getSearchText, "title", "description", "subject")
+            .regexFlag(ExamCriteria::getRegex);
+
     private final MongoTemplate mongoTemplate;
     private final ExamMapper examMapper;
     private final QuestionService questionService;
+    private final ExamTreeAggregator examTreeAggregator;
+    private final KeysetPaginator keysetPaginator;
+    private final QueryCountStrategy countStrategy;
+    private final QueryStreamer queryStreamer;
+    private final QueryExplainer queryExplainer;
+    private final CriteriaCompiler criteriaCompiler;
+
+    @Value("${app.mongodb.hydration-mode:aggregation}")
+    private HydrationMode hydrationMode;
 
     public Page<ExamResponseDto> findByCriteria(ExamCriteria examCriteria, Pageable pageable) {
         log.debug("Finding exams by criteria: {}", examCriteria);
 
-        Query query = createQuery(examCriteria);
-        query.with(pageable);
-        List<Exam> exams = mongoTemplate.find(query, Exam.class);
-        long total = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Exam.class);
-        List<ExamResponseDto> examDtos = exams.stream()
-                .map(exam -> {
-                    ExamResponseDto dto = examMapper.toResponseDto(exam);
-                    dto.setQuestions(questionService.getQuestionsByExamId(exam.getId()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return countStrategy.page(findPage(examCriteria, pageable), pageable, createQuery(examCriteria), Exam.class);
+    }
+
+    /**
+     * Pages exams without computing a total, only whether a next page exists.
+     */
+    public Slice<ExamResponseDto> findSliceByCriteria(ExamCriteria examCriteria, Pageable pageable) {
+        log.debug("Finding exam slice by criteria: {}", examCriteria);
 
-        return PageableExecutionUtils.getPage(examDtos, pageable, () -> total);
+        return countStrategy.slice(pageable, page -> findPage(examCriteria, page));
     }
 
     public List<ExamResponseDto> findByCriteria(ExamCriteria examCriteria) {
         log.debug("Finding all exams by criteria: {}", examCriteria);
 
-        Query query = createQuery(examCriteria);
+        if (hydrationMode == HydrationMode.AGGREGATION) {
+            return examTreeAggregator.findExams(createCriteria(examCriteria), Pageable.unpaged());
+        }
+
+        Query query = TextSearch.withPageable(createQuery(examCriteria), Pageable.unpaged());
 
         List<Exam> exams = mongoTemplate.find(query, Exam.class);
 
+        return toResponseDtosWithQuestions(exams);
+    }
+
+    /**
+     * Reads the slice of matching exams after {@code cursor}, hydrating only that slice.
+     */
+    public CursorSliceDto<ExamResponseDto> scrollByCriteria(ExamCriteria examCriteria, Pageable pageable, String cursor) {
+        log.debug("Scrolling exams by criteria: {}", examCriteria);
+
+        return keysetPaginator.scroll(createQuery(examCriteria), pageable, cursor, Exam.class, SCROLL_SORTS,
+                this::toResponseDtosWithQuestions);
+    }
+
+    /**
+     * Pages exams without hydrating their questions.
+     */
+    public Page<ExamSummaryDto> findSummariesByCriteria(ExamCriteria examCriteria, Pageable pageable) {
+        log.debug("Finding exam summaries by criteria: {}", examCriteria);
+
+        Criteria criteria = createCriteria(examCriteria);
+        List<ExamSummaryDto> summaries = examTreeAggregator.findExamSummaries(criteria, pageable);
+
+        return countStrategy.page(summaries, pageable, createQuery(examCriteria), Exam.class);
+    }
+
+    public List<ExamSummaryDto> findSummariesByCriteria(ExamCriteria examCriteria) {
+        log.debug("Finding all exam summaries by criteria: {}", examCriteria);
+
+        return examTreeAggregator.findExamSummaries(createCriteria(examCriteria), Pageable.unpaged());
+    }
+
+    /**
+     * Reads every matching exam through a cursor, hydrating and handing over one chunk at a time.
+     */
+    public void streamByCriteria(ExamCriteria examCriteria, Consumer<List<ExamResponseDto>> consumer) {
+        log.debug("Streaming exams by criteria: {}", examCriteria);
+
+        queryStreamer.stream(TextSearch.withPageable(createQuery(examCriteria), Pageable.unpaged()), Exam.class,
+                this::toResponseDtosWithQuestions, consumer);
+    }
+
+    /**
+     * Explains the query a page of {@link #findByCriteria(ExamCriteria, Pageable)} runs, as a plain find.
+     */
+    public QueryExplanationDto explainByCriteria(ExamCriteria examCriteria, Pageable pageable) {
+        return queryExplainer.explain(TextSearch.withPageable(createQuery(examCriteria), pageable), Exam.class);
+    }
+
+    public long countByCriteria(ExamCriteria examCriteria) {
+        Query query = createQuery(examCriteria);
+        return countStrategy.count(query, Exam.class);
+    }
+
+    private List<ExamResponseDto> findPage(ExamCriteria examCriteria, Pageable pageable) {
+        if (hydrationMode == HydrationMode.AGGREGATION) {
+            return examTreeAggregator.findExams(createCriteria(examCriteria), pageable);
+        }
+
+        Query query = TextSearch.withPageable(createQuery(examCriteria), pageable);
+        return toResponseDtosWithQuestions(mongoTemplate.find(query, Exam.class));
+    }
+
+    private List<ExamResponseDto> toResponseDtosWithQuestions(List<Exam> exams) {
+        List<String> examIds = exams.stream()
+                .map(Exam::getId)
+                .collect(Collectors.toList());
+        Map<String, List<QuestionResponseDto>> questionsByExamId = questionService.getQuestionsByExamIds(examIds);
+
         return exams.stream()
                 .map(exam -> {
                     ExamResponseDto dto = examMapper.toResponseDto(exam);
-                    dto.setQuestions(questionService.getQuestionsByExamId(exam.getId()));
+                    dto.setQuestions(questionsByExamId.getOrDefault(exam.getId(), new ArrayList<>()));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
-    public long countByCriteria(ExamCriteria examCriteria) {
-        Query query = createQuery(examCriteria);
-        return mongoTemplate.count(query, Exam.class);
-    }
-
     private Query createQuery(ExamCriteria examCriteria) {
-        Query query = new Query();
-        List<Criteria> criteriaList = new ArrayList<>();
-
-        if (StringUtils.hasText(examCriteria.getId())) {
-            criteriaList.add(Criteria.where("id").is(examCriteria.getId()));
-        }
-        if (StringUtils.hasText(examCriteria.getTitle())) {
-            Pattern pattern = Pattern.compile(examCriteria.getTitle(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(Criteria.where("title").regex(pattern));
-        }
-        if (StringUtils.hasText(examCriteria.getDescription())) {
-            Pattern pattern = Pattern.compile(examCriteria.getDescription(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(Criteria.where("description").regex(pattern));
-        }
-        if (StringUtils.hasText(examCriteria.getSubject())) {
-            criteriaList.add(Criteria.where("subject").is(examCriteria.getSubject()));
-        }
-        if (StringUtils.hasText(examCriteria.getDifficultyLevel())) {
-            criteriaList.add(Criteria.where("difficulty_level").is(examCriteria.getDifficultyLevel()));
-        }
-        if (StringUtils.hasText(examCriteria.getCreatedBy())) {
-            criteriaList.add(Criteria.where("created_by").is(examCriteria.getCreatedBy()));
-        }
-        if (StringUtils.hasText(examCriteria.getUpdatedBy())) {
-            criteriaList.add(Criteria.where("updated_by").is(examCriteria.getUpdatedBy()));
-        }
-        if (examCriteria.getCreatedAtFrom() != null || examCriteria.getCreatedAtTo() != null) {
-            Criteria dateCriteria = Criteria.where("created_at");
-            if (examCriteria.getCreatedAtFrom() != null) {
-                dateCriteria = dateCriteria.gte(examCriteria.getCreatedAtFrom());
-            }
-            if (examCriteria.getCreatedAtTo() != null) {
-                dateCriteria = dateCriteria.lte(examCriteria.getCreatedAtTo());
-            }
-            criteriaList.add(dateCriteria);
-        }
-        if (examCriteria.getUpdatedAtFrom() != null || examCriteria.getUpdatedAtTo() != null) {
-            Criteria dateCriteria = Criteria.where("updated_at");
-            if (examCriteria.getUpdatedAtFrom() != null) {
-                dateCriteria = dateCriteria.gte(examCriteria.getUpdatedAtFrom());
-            }
-            if (examCriteria.getUpdatedAtTo() != null) {
-                dateCriteria = dateCriteria.lte(examCriteria.getUpdatedAtTo());
-            }
-            criteriaList.add(dateCriteria);
-        }
-        if (examCriteria.getDurationInMinutesMin() != null || examCriteria.getDurationInMinutesMax() != null) {
-            Criteria durationCriteria = Criteria.where("duration_minutes");
-            if (examCriteria.getDurationInMinutesMin() != null) {
-                durationCriteria = durationCriteria.gte(examCriteria.getDurationInMinutesMin());
-            }
-            if (examCriteria.getDurationInMinutesMax() != null) {
-                durationCriteria = durationCriteria.lte(examCriteria.getDurationInMinutesMax());
-            }
-            criteriaList.add(durationCriteria);
-        }
-        if (examCriteria.getPassingScoreMin() != null || examCriteria.getPassingScoreMax() != null) {
-            Criteria scoreCriteria = Criteria.where("passing_score");
-            if (examCriteria.getPassingScoreMin() != null) {
-                scoreCriteria = scoreCriteria.gte(examCriteria.getPassingScoreMin());
-            }
-            if (examCriteria.getPassingScoreMax() != null) {
-                scoreCriteria = scoreCriteria.lte(examCriteria.getPassingScoreMax());
-            }
-            criteriaList.add(scoreCriteria);
-        }
-        if (examCriteria.getTotalPointsMin() != null || examCriteria.getTotalPointsMax() != null) {
-            Criteria pointsCriteria = Criteria.where("total_points");
-            if (examCriteria.getTotalPointsMin() != null) {
-                pointsCriteria = pointsCriteria.gte(examCriteria.getTotalPointsMin());
-            }
-            if (examCriteria.getTotalPointsMax() != null) {
-                pointsCriteria = pointsCriteria.lte(examCriteria.getTotalPointsMax());
-            }
-            criteriaList.add(pointsCriteria);
-        }
-        if (examCriteria.getAllowMultipleChoice() != null) {
-            criteriaList.add(Criteria.where("allow_multiple_choice").is(examCriteria.getAllowMultipleChoice()));
-        }
-        if (examCriteria.getAllowTrueFalse() != null) {
-            criteriaList.add(Criteria.where("allow_true_false").is(examCriteria.getAllowTrueFalse()));
-        }
-        if (StringUtils.hasText(examCriteria.getSearchText())) {
-            Pattern pattern = Pattern.compile(examCriteria.getSearchText(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(new Criteria().orOperator(
-                    Criteria.where("title").regex(pattern),
-                    Criteria.where("description").regex(pattern),
-                    Criteria.where("subject").regex(pattern)
-            ));
-        }
-        if (!criteriaList.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteriaList.toArray(new Criteria[0])));
-        }
+        Criteria criteria = createCriteria(examCriteria);
+        return criteria != null ? new Query(criteria) : new Query();
+    }
 
-        return query;
+    private Criteria createCriteria(ExamCriteria examCriteria) {
+        return criteriaCompiler.compile(CRITERIA_SPEC, examCriteria);
     }
-}
\ No newline at end of file
+}
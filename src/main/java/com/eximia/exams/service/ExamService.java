@@ -7,8 +7,17 @@ public interface ExamService {
 
     ExamResponseDto createExam(ExamRequestDto examRequestDto);
 
+    ExamResponseDto createExam(ExamRequestDto examRequestDto, String idempotencyKey);
+
     ExamResponseDto getExamById(String id);
 
+    /**
+     * Same as {@link #getExamById(String)}, but a cached exam older than {@code currentVersion} counts as
+     * a miss. Such an entry is left by a read that started before a write and was cached after the write
+     * evicted it.
+     */
+    ExamResponseDto getExamById(String id, long currentVersion);
+
     ExamResponseDto updateExam(String id, ExamRequestDto examRequestDto);
 
     void deleteExam(String id);
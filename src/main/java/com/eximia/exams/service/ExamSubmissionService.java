@@ -0,0 +1,21 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.response.ExamCreationTicketDto;
+
+import java.util.Map;
+
+public interface ExamSubmissionService {
+
+    ExamCreationTicketDto submitExam(ExamRequestDto examRequestDto);
+
+    ExamCreationTicketDto getTicket(String ticketId);
+
+    void markCreated(String ticketId, String examId);
+
+    void markCreated(Map<String, String> examIdsByTicketId);
+
+    void recordError(String ticketId, String error);
+
+    void markFailed(String ticketId, String error);
+}
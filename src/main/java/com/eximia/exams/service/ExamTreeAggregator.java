@@ -0,0 +1,204 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.ExamSummaryDto;
+import com.eximia.exams.dto.response.OptionResponseDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.dto.response.QuestionSummaryDto;
+import com.eximia.exams.mapper.ExamMapper;
+import com.eximia.exams.mapper.OptionMapper;
+import com.eximia.exams.mapper.QuestionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Loads exams or questions together with their children in a single aggregation round trip, or as
+ * summaries without touching the child collections at all.
+ * <p>
+ * Children reference their parent by the string form of its ObjectId, so the joins use the
+ * {@code let}/{@code pipeline} form of {@code $lookup} with {@code $toString} on the parent id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExamTreeAggregator {
+
+    private static final String QUESTIONS_FIELD = "questions";
+    private static final String OPTIONS_FIELD = "options";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExamMapper examMapper;
+    private final QuestionMapper questionMapper;
+    private final OptionMapper optionMapper;
+
+    public List<ExamResponseDto> findExams(Criteria criteria, Pageable pageable) {
+        List<AggregationOperation> operations = pageOperations(criteria, pageable);
+        operations.add(context -> lookupChildren(
+                mongoTemplate.getCollectionName(Question.class), "exam_id", QUESTIONS_FIELD, lookupOptions()));
+
+        List<Document> documents = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Exam.class, operations),
+                mongoTemplate.getCollectionName(Exam.class),
+                Document.class
+        ).getMappedResults();
+
+        log.debug("Aggregated {} exams with their questions and options", documents.size());
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        return documents.stream()
+                .map(document -> {
+                    ExamResponseDto dto = examMapper.toResponseDto(converter.read(Exam.class, document));
+                    dto.setQuestions(toQuestionDtos(document.getList(QUESTIONS_FIELD, Document.class)));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    public List<QuestionResponseDto> findQuestions(Criteria criteria, Pageable pageable) {
+        List<AggregationOperation> operations = pageOperations(criteria, pageable);
+        operations.add(context -> lookupOptions());
+
+        List<Document> documents = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Question.class, operations),
+                mongoTemplate.getCollectionName(Question.class),
+                Document.class
+        ).getMappedResults();
+
+        log.debug("Aggregated {} questions with their options", documents.size());
+
+        return toQuestionDtos(documents);
+    }
+
+    /**
+     * Loads exams without their questions, projected to the summary fields. The question count comes
+     * from the size of {@code question_ids}, so the questions collection is never read.
+     */
+    public List<ExamSummaryDto> findExamSummaries(Criteria criteria, Pageable pageable) {
+        List<AggregationOperation> operations = pageOperations(criteria, pageable);
+        operations.add(context -> new Document("$project", new Document("title", 1)
+                .append("description", 1)
+                .append("subject", 1)
+                .append("difficultyLevel", "$difficulty_level")
+                .append("durationInMinutes", "$duration_minutes")
+                .append("passingScore", "$passing_score")
+                .append("totalPoints", "$total_points")
+                .append("questionCount", sizeOf("question_ids"))
+                .append("createdAt", "$created_at")
+                .append("updatedAt", "$updated_at")));
+
+        return mongoTemplate.aggregate(
+                Aggregation.newAggregation(Exam.class, operations),
+                mongoTemplate.getCollectionName(Exam.class),
+                ExamSummaryDto.class
+        ).getMappedResults();
+    }
+
+    /**
+     * Loads questions without their options, projected to the summary fields. The option count comes
+     * from the size of {@code option_ids}, so the options collection is never read.
+     */
+    public List<QuestionSummaryDto> findQuestionSummaries(Criteria criteria, Pageable pageable) {
+        List<AggregationOperation> operations = pageOperations(criteria, pageable);
+        operations.add(context -> new Document("$project", new Document("questionText", "$question_text")
+                .append("questionType", "$question_type")
+                .append("points", 1)
+                .append("orderIndex", "$order_index")
+                .append("examId", "$exam_id")
+                .append("optionCount", sizeOf("option_ids"))
+                .append("createdAt", "$created_at")
+                .append("updatedAt", "$updated_at")));
+
+        return mongoTemplate.aggregate(
+                Aggregation.newAggregation(Question.class, operations),
+                mongoTemplate.getCollectionName(Question.class),
+                QuestionSummaryDto.class
+        ).getMappedResults();
+    }
+
+    private static Document sizeOf(String arrayField) {
+        return new Document("$size", new Document("$ifNull", List.of("$" + arrayField, List.of())));
+    }
+
+    private List<AggregationOperation> pageOperations(Criteria criteria, Pageable pageable) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (criteria != null) {
+            operations.add(Aggregation.match(criteria));
+        }
+
+        if (pageable.getSort().isSorted()) {
+            operations.add(Aggregation.sort(pageable.getSort()));
+        } else if (criteria != null && TextSearch.isTextSearch(criteria.getCriteriaObject())) {
+            operations.add(TextSearch.sortByScore());
+        }
+        if (pageable.isPaged()) {
+            operations.add(Aggregation.skip(pageable.getOffset()));
+            operations.add(Aggregation.limit(pageable.getPageSize()));
+        }
+
+        return operations;
+    }
+
+    private Document lookupOptions() {
+        return lookupChildren(mongoTemplate.getCollectionName(Option.class), "question_id", OPTIONS_FIELD, null);
+    }
+
+    /**
+     * Builds a {@code $lookup} stage joining the children whose {@code foreignField} equals the
+     * parent id, ordered by {@code order_index}, optionally followed by a nested lookup.
+     */
+    private Document lookupChildren(String from, String foreignField, String as, Document nestedLookup) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("$expr",
+                new Document("$eq", List.of("$" + foreignField, "$$parentId")))));
+        pipeline.add(new Document("$sort", new Document("order_index", 1)));
+        if (nestedLookup != null) {
+            pipeline.add(nestedLookup);
+        }
+
+        return new Document("$lookup", new Document("from", from)
+                .append("let", new Document("parentId", new Document("$toString", "$_id")))
+                .append("pipeline", pipeline)
+                .append("as", as));
+    }
+
+    private List<QuestionResponseDto> toQuestionDtos(List<Document> questionDocuments) {
+        if (questionDocuments == null) {
+            return new ArrayList<>();
+        }
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        return questionDocuments.stream()
+                .map(questionDocument -> {
+                    QuestionResponseDto dto = questionMapper.toResponseDto(converter.read(Question.class, questionDocument));
+                    dto.setOptions(toOptionDtos(questionDocument.getList(OPTIONS_FIELD, Document.class)));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<OptionResponseDto> toOptionDtos(List<Document> optionDocuments) {
+        if (optionDocuments == null) {
+            return new ArrayList<>();
+        }
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        return optionDocuments.stream()
+                .map(optionDocument -> optionMapper.toResponseDto(converter.read(Option.class, optionDocument)))
+                .collect(Collectors.toList());
+    }
+}
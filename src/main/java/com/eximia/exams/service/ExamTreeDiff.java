@@ -0,0 +1,263 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.dto.request.OptionRequestDto;
+import com.eximia.exams.dto.request.QuestionRequestDto;
+import com.eximia.exams.mapper.OptionMapper;
+import com.eximia.exams.mapper.QuestionMapper;
+import com.eximia.exams.repository.OptionRepository;
+import com.eximia.exams.repository.QuestionRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies an incoming question tree to an exam as a structural diff against the stored tree.
+ * <p>
+ * Questions and options are matched by id first and by {@code order_index} second. Matched children
+ * keep their ids and are only rewritten when a field changed; the rest becomes inserts and deletes.
+ * All changes go out as one ordered bulk write per collection.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExamTreeDiff {
+
+    private final MongoTemplate mongoTemplate;
+    private final QuestionRepository questionRepository;
+    private final OptionRepository optionRepository;
+    private final QuestionMapper questionMapper;
+    private final OptionMapper optionMapper;
+
+    public Result apply(String examId, List<QuestionRequestDto> incomingQuestions) {
+        List<Question> storedQuestions = questionRepository.findByExamIdOrderByOrderIndexAsc(examId);
+        Map<String, List<Option>> storedOptions = optionRepository.findByQuestionIdInOrderByQuestionIdAscOrderIndexAsc(
+                        storedQuestions.stream().map(Question::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(Option::getQuestionId));
+
+        Changes<Question> questionChanges = new Changes<>();
+        Changes<Option> optionChanges = new Changes<>();
+        List<String> removedQuestionIds = new ArrayList<>();
+        Set<String> touchedQuestionIds = new HashSet<>();
+
+        List<Question> questions = new ArrayList<>();
+        List<Option> options = new ArrayList<>();
+
+        Matcher<Question> questionMatcher = new Matcher<>(storedQuestions, Question::getId, Question::getOrderIndex);
+
+        for (QuestionRequestDto questionDto : incomingQuestions) {
+            Question question = questionMatcher.match(questionDto.getId(), questionDto.getOrderIndex());
+            boolean isNew = question == null;
+            boolean changed = isNew || questionChanged(question, questionDto);
+
+            if (isNew) {
+                question = questionMapper.toEntity(questionDto);
+                question.setId(newId());
+                question.setExamId(examId);
+            } else if (changed) {
+                questionMapper.updateEntity(question, questionDto);
+            }
+
+            List<Option> questionOptions = diffOptions(question.getId(),
+                    isNew ? List.of() : storedOptions.getOrDefault(question.getId(), List.of()),
+                    questionDto.getOptions(), optionChanges);
+
+            List<String> optionIds = questionOptions.stream().map(Option::getId).collect(Collectors.toList());
+            if (!optionIds.equals(question.getOptionIds())) {
+                question.setOptionIds(optionIds);
+                changed = true;
+            }
+
+            if (isNew) {
+                questionChanges.inserts.add(question);
+            } else if (changed || optionChanges.touched(question.getId())) {
+                if (changed) {
+                    questionChanges.updates.add(question);
+                }
+                touchedQuestionIds.add(question.getId());
+            }
+
+            questions.add(question);
+            options.addAll(questionOptions);
+        }
+
+        for (Question removed : questionMatcher.unmatched()) {
+            questionChanges.deletes.add(removed.getId());
+            removedQuestionIds.add(removed.getId());
+            touchedQuestionIds.add(removed.getId());
+        }
+
+        write(questionChanges, optionChanges, removedQuestionIds);
+
+        log.info("Applied diff to exam {}: questions +{} ~{} -{}, options +{} ~{} -{}", examId,
+                questionChanges.inserts.size(), questionChanges.updates.size(), questionChanges.deletes.size(),
+                optionChanges.inserts.size(), optionChanges.updates.size(), optionChanges.deletes.size());
+
+        return new Result(questions, options, touchedQuestionIds);
+    }
+
+    private List<Option> diffOptions(String questionId, List<Option> storedOptions,
+                                     List<OptionRequestDto> incomingOptions, Changes<Option> changes) {
+        Matcher<Option> optionMatcher = new Matcher<>(storedOptions, Option::getId, Option::getOrderIndex);
+        List<Option> options = new ArrayList<>();
+
+        for (OptionRequestDto optionDto : incomingOptions) {
+            Option option = optionMatcher.match(optionDto.getId(), optionDto.getOrderIndex());
+
+            if (option == null) {
+                option = optionMapper.toEntity(optionDto);
+                option.setId(newId());
+                option.setQuestionId(questionId);
+                changes.inserts.add(option);
+                changes.touchedParents.add(questionId);
+            } else if (optionChanged(option, optionDto)) {
+                optionMapper.updateEntity(option, optionDto);
+                changes.updates.add(option);
+                changes.touchedParents.add(questionId);
+            }
+
+            options.add(option);
+        }
+
+        for (Option removed : optionMatcher.unmatched()) {
+            changes.deletes.add(removed.getId());
+            changes.touchedParents.add(questionId);
+        }
+
+        return options;
+    }
+
+    private void write(Changes<Question> questionChanges, Changes<Option> optionChanges, List<String> removedQuestionIds) {
+        if (questionChanges.hasChanges()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Question.class);
+            questionChanges.apply(bulk, Question::getId);
+            bulk.execute();
+        }
+
+        if (optionChanges.hasChanges() || !removedQuestionIds.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Option.class);
+            optionChanges.apply(bulk, Option::getId);
+            if (!removedQuestionIds.isEmpty()) {
+                bulk.remove(Query.query(Criteria.where("question_id").in(removedQuestionIds)));
+            }
+            bulk.execute();
+        }
+    }
+
+    private boolean questionChanged(Question question, QuestionRequestDto dto) {
+        return !Objects.equals(question.getQuestionText(), dto.getQuestionText())
+                || question.getQuestionType() != dto.getQuestionType()
+                || !Objects.equals(question.getPoints(), dto.getPoints())
+                || !Objects.equals(question.getExplanation(), dto.getExplanation())
+                || !Objects.equals(question.getOrderIndex(), dto.getOrderIndex());
+    }
+
+    private boolean optionChanged(Option option, OptionRequestDto dto) {
+        return !Objects.equals(option.getOptionText(), dto.getOptionText())
+                || !Objects.equals(option.getIsCorrect(), dto.getIsCorrect())
+                || !Objects.equals(option.getPoints(), dto.getPoints())
+                || !Objects.equals(option.getOrderIndex(), dto.getOrderIndex())
+                || !Objects.equals(option.getExplanation(), dto.getExplanation());
+    }
+
+    private static String newId() {
+        return new ObjectId().toHexString();
+    }
+
+    /**
+     * The exam tree after the diff was applied, in request order, plus the ids of every stored
+     * question whose own document or options were written.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final List<Question> questions;
+        private final List<Option> options;
+        private final Set<String> touchedQuestionIds;
+    }
+
+    /**
+     * Pairs incoming children with stored ones, by id when the request carries one and by
+     * {@code order_index} otherwise. Each stored child is matched at most once.
+     */
+    private static class Matcher<T> {
+        private final Map<String, T> byId = new LinkedHashMap<>();
+        private final Map<Integer, T> byOrderIndex = new LinkedHashMap<>();
+        private final Function<T, String> idOf;
+        private final Function<T, Integer> orderIndexOf;
+
+        Matcher(List<T> stored, Function<T, String> idOf, Function<T, Integer> orderIndexOf) {
+            this.idOf = idOf;
+            this.orderIndexOf = orderIndexOf;
+            for (T child : stored) {
+                byId.put(idOf.apply(child), child);
+                if (orderIndexOf.apply(child) != null) {
+                    byOrderIndex.putIfAbsent(orderIndexOf.apply(child), child);
+                }
+            }
+        }
+
+        T match(String id, Integer orderIndex) {
+            T child = id != null ? byId.get(id) : null;
+            if (child == null && orderIndex != null) {
+                child = byOrderIndex.get(orderIndex);
+            }
+            if (child != null) {
+                byId.remove(idOf.apply(child));
+                if (orderIndexOf.apply(child) != null) {
+                    byOrderIndex.remove(orderIndexOf.apply(child), child);
+                }
+            }
+            return child;
+        }
+
+        List<T> unmatched() {
+            return new ArrayList<>(byId.values());
+        }
+    }
+
+    private static class Changes<T> {
+        private final List<T> inserts = new ArrayList<>();
+        private final List<T> updates = new ArrayList<>();
+        private final List<String> deletes = new ArrayList<>();
+        private final Set<String> touchedParents = new HashSet<>();
+
+        boolean hasChanges() {
+            return !inserts.isEmpty() || !updates.isEmpty() || !deletes.isEmpty();
+        }
+
+        boolean touched(String parentId) {
+            return touchedParents.contains(parentId);
+        }
+
+        void apply(BulkOperations bulk, Function<T, String> idOf) {
+            if (!inserts.isEmpty()) {
+                bulk.insert(inserts);
+            }
+            for (T update : updates) {
+                bulk.replaceOne(Query.query(Criteria.where("id").is(idOf.apply(update))), update);
+            }
+            if (!deletes.isEmpty()) {
+                bulk.remove(Query.query(Criteria.where("id").in(deletes)));
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.ExamVersion;
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tracks a version per exam, bumped by every write to the exam, its questions or its options, and
+ * answers version lookups for conditional GETs without hydrating anything.
+ * <p>
+ * A version is only bumped once the other listeners have updated the read model and evicted the
+ * cache, so whatever is loaded from the database after seeing a version is at least as new as that
+ * version. A cached tree may still be older: a read that started before a write can cache its result
+ * after the write's eviction. Readers therefore compare the tree's version with the current one and
+ * reload older trees, see {@code ExamService#getExamById(String, long)}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExamVersionService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Current version of the exam, {@code 0} for an exam not written since versions were introduced,
+     * or empty when the exam does not exist.
+     */
+    public Optional<Long> findVersion(String examId) {
+        ExamVersion examVersion = mongoTemplate.findById(examId, ExamVersion.class);
+        if (examVersion != null) {
+            return Optional.of(examVersion.getVersion());
+        }
+
+        return mongoTemplate.exists(Query.query(where("id").is(examId)), Exam.class)
+                ? Optional.of(0L)
+                : Optional.empty();
+    }
+
+    /**
+     * Stored versions of the given exams in one query; exams missing from the result are at {@code 0}
+     * or do not exist.
+     */
+    public Map<String, Long> findVersions(Collection<String> examIds) {
+        return mongoTemplate.find(Query.query(where("id").in(examIds)), ExamVersion.class).stream()
+                .collect(Collectors.toMap(ExamVersion::getId, ExamVersion::getVersion));
+    }
+
+    /**
+     * Version of the exam the question belongs to, or empty when the question does not exist.
+     */
+    public Optional<Long> findVersionOfQuestion(String questionId) {
+        Query query = Query.query(where("id").is(questionId));
+        query.fields().include("exam_id");
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, Question.class))
+                .flatMap(question -> findVersion(question.getExamId()));
+    }
+
+    /**
+     * Version of the exam the option belongs to, or empty when the option does not exist.
+     */
+    public Optional<Long> findVersionOfOption(String optionId) {
+        Query query = Query.query(where("id").is(optionId));
+        query.fields().include("question_id");
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, Option.class))
+                .flatMap(option -> findVersionOfQuestion(option.getQuestionId()));
+    }
+
+    public static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    @EventListener
+    @Order(5)
+    public void onExamChanged(ExamChangedEvent event) {
+        Query query = Query.query(where("id").is(event.getExamId()));
+
+        if (event.getChangeType() == ExamChangedEvent.ChangeType.DELETED) {
+            mongoTemplate.remove(query, ExamVersion.class);
+            return;
+        }
+
+        mongoTemplate.upsert(query, new Update().inc("version", 1), ExamVersion.class);
+        log.debug("Bumped version of exam with ID: {}", event.getExamId());
+    }
+}
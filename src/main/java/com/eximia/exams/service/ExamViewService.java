@@ -0,0 +1,164 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.ExamView;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.mapper.ExamMapper;
+import com.eximia.exams.repository.ExamRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the optional {@code exam_views} read model, so a full exam can be served from one
+ * point read by id.
+ * <p>
+ * Writes that carry the whole tree store it as the view right away. Other writes (a question, an
+ * option) drop the view, so reads fall back to the source collections, and mark the exam for a rebuild
+ * that runs once per refresh interval however many writes it received. Exams that have no view yet
+ * (e.g. created before the read model was enabled) are backfilled on their first read.
+ * <p>
+ * Failures are logged rather than thrown, so a committed write still reaches the listeners after this
+ * one; the exam is then rebuilt on the next refresh.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExamViewService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ExamRepository examRepository;
+    private final ExamMapper examMapper;
+    private final QuestionService questionService;
+
+    @Value("${app.read-model.exam-views.enabled:false}")
+    private boolean enabled;
+
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
+    public Optional<ExamResponseDto> findById(String examId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(mongoTemplate.findById(examId, ExamView.class))
+                .map(ExamView::getExam);
+    }
+
+    /**
+     * Stores a view for an exam that has none yet. A view written concurrently by a write path is
+     * newer than what the reader hydrated, so it is never overwritten here. Inside a transaction the
+     * insert waits for it to complete, since reads may run in read-only ones.
+     */
+    public void backfill(ExamResponseDto exam) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    insert(exam);
+                }
+            });
+            return;
+        }
+
+        insert(exam);
+    }
+
+    @EventListener
+    @Order(0)
+    public void onExamChanged(ExamChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        String examId = event.getExamId();
+        try {
+            if (event.getChangeType() == ExamChangedEvent.ChangeType.DELETED) {
+                pendingRefreshes.remove(examId);
+                remove(examId);
+            } else if (event.hasSnapshot()) {
+                mongoTemplate.save(toView(event.getSnapshot()));
+            } else {
+                remove(examId);
+                pendingRefreshes.add(examId);
+            }
+        } catch (RuntimeException e) {
+            pendingRefreshes.add(examId);
+            log.warn("Failed to update exam view for ID {}, rebuilding it on next refresh: {}", examId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-model.exam-views.refresh-interval:1000}")
+    public void refreshPending() {
+        for (Iterator<String> iterator = pendingRefreshes.iterator(); iterator.hasNext(); ) {
+            String examId = iterator.next();
+            iterator.remove();
+            try {
+                refresh(examId);
+            } catch (RuntimeException e) {
+                pendingRefreshes.add(examId);
+                log.warn("Failed to refresh exam view for ID {}, retrying on next refresh: {}", examId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the view of an exam from the source collections.
+     */
+    public void refresh(String examId) {
+        Optional<Exam> exam = examRepository.findById(examId);
+        if (exam.isEmpty()) {
+            remove(examId);
+            return;
+        }
+
+        ExamResponseDto responseDto = examMapper.toResponseDto(exam.get());
+        responseDto.setQuestions(questionService.getQuestionsByExamId(examId));
+
+        mongoTemplate.save(toView(responseDto));
+        log.debug("Exam view refreshed for ID: {}", examId);
+    }
+
+    private void insert(ExamResponseDto exam) {
+        try {
+            mongoTemplate.insert(toView(exam));
+        } catch (DuplicateKeyException e) {
+            log.debug("Exam view for ID {} already exists, skipping backfill", exam.getId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to backfill exam view for ID {}: {}", exam.getId(), e.getMessage());
+        }
+    }
+
+    private void remove(String examId) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(examId)), ExamView.class);
+    }
+
+    private ExamView toView(ExamResponseDto exam) {
+        return ExamView.builder()
+                .id(exam.getId())
+                .exam(exam)
+                .refreshedAt(LocalDateTime.now())
+                .build();
+    }
+}
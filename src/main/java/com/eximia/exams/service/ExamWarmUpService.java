@@ -0,0 +1,163 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.CacheConfig;
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.dto.response.CacheWarmUpDto;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.mapper.ExamMapper;
+import com.eximia.exams.repository.ExamRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Preloads exams into the exam cache and {@link EncodedExamCache}, and their questions' options into
+ * {@link OptionListCache}, before they are read.
+ * <p>
+ * On startup the most read exams according to {@link ExamAccessTracker} are loaded while the application
+ * runners run, which is before the readiness probe reports the replica as accepting traffic. Exams are
+ * hydrated in batches with one query per collection, and never replace an entry already cached. An exam
+ * written while its batch was loading is left out rather than cached under a version it no longer has.
+ */
+@Slf4j
+@Service
+public class ExamWarmUpService implements ApplicationRunner {
+
+    private final ExamRepository examRepository;
+    private final ExamMapper examMapper;
+    private final QuestionService questionService;
+    private final ExamVersionService examVersionService;
+    private final ExamAccessTracker examAccessTracker;
+    private final Cache examsCache;
+    private final EncodedExamCache encodedExamCache;
+    private final ObjectMapper objectMapper;
+    private final boolean onStartup;
+    private final int topExams;
+    private final Duration window;
+    private final int batchSize;
+
+    public ExamWarmUpService(ExamRepository examRepository,
+                             ExamMapper examMapper,
+                             QuestionService questionService,
+                             ExamVersionService examVersionService,
+                             ExamAccessTracker examAccessTracker,
+                             CacheManager cacheManager,
+                             EncodedExamCache encodedExamCache,
+                             ObjectMapper objectMapper,
+                             @Value("${app.cache.warm-up.on-startup:false}") boolean onStartup,
+                             @Value("${app.cache.warm-up.top-exams:200}") int topExams,
+                             @Value("${app.cache.warm-up.window:7d}") Duration window,
+                             @Value("${app.cache.warm-up.batch-size:50}") int batchSize) {
+        this.examRepository = examRepository;
+        this.examMapper = examMapper;
+        this.questionService = questionService;
+        this.examVersionService = examVersionService;
+        this.examAccessTracker = examAccessTracker;
+        this.examsCache = cacheManager.getCache(CacheConfig.EXAMS_CACHE);
+        this.encodedExamCache = encodedExamCache;
+        this.objectMapper = objectMapper;
+        this.onStartup = onStartup;
+        this.topExams = topExams;
+        this.window = window;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!onStartup) {
+            return;
+        }
+
+        try {
+            CacheWarmUpDto result = warmUp(examAccessTracker.findMostAccessed(topExams, window));
+            log.info("Preloaded {} most read exams in {} ms", result.getLoaded(), result.getDurationMillis());
+        } catch (DataAccessException e) {
+            // A cold cache is slower, not broken
+            log.warn("Failed to preload the most read exams, starting with a cold cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the given exams into the exam and option caches, for instance ahead of a scheduled sitting.
+     */
+    public CacheWarmUpDto warmUp(Collection<String> examIds) {
+        long start = System.nanoTime();
+        List<String> requested = List.copyOf(new LinkedHashSet<>(examIds));
+        List<String> missing = new ArrayList<>();
+        int loaded = 0;
+
+        for (int from = 0; from < requested.size(); from += batchSize) {
+            List<String> batch = requested.subList(from, Math.min(from + batchSize, requested.size()));
+            Set<String> found = loadBatch(batch);
+            loaded += found.size();
+            batch.stream().filter(examId -> !found.contains(examId)).forEach(missing::add);
+        }
+
+        return CacheWarmUpDto.builder()
+                .requested(requested.size())
+                .loaded(loaded)
+                .missingExamIds(missing)
+                .durationMillis(Duration.ofNanos(System.nanoTime() - start).toMillis())
+                .build();
+    }
+
+    private Set<String> loadBatch(List<String> examIds) {
+        // Read before the exams, so no tree is older than the version it is tagged with
+        Map<String, Long> versions = examVersionService.findVersions(examIds);
+
+        List<Exam> exams = examRepository.findAllById(examIds);
+        Set<String> found = new LinkedHashSet<>();
+        exams.forEach(exam -> found.add(exam.getId()));
+
+        // Options come through OptionListCache, which keeps them for later reads of single questions
+        Map<String, List<QuestionResponseDto>> questionsByExamId = questionService.getQuestionsByExamIds(found);
+
+        // A write since the first read may already have evicted the exam, so caching it would outlive the eviction
+        Map<String, Long> currentVersions = examVersionService.findVersions(found);
+
+        for (Exam exam : exams) {
+            if (!Objects.equals(versions.get(exam.getId()), currentVersions.get(exam.getId()))) {
+                log.debug("Exam with ID {} was written while preloading, leaving it out", exam.getId());
+                continue;
+            }
+
+            ExamResponseDto responseDto = examMapper.toResponseDto(exam);
+            responseDto.setQuestions(new ArrayList<>(questionsByExamId.getOrDefault(exam.getId(), List.of())));
+            responseDto.setVersion(versions.getOrDefault(exam.getId(), 0L));
+            examsCache.putIfAbsent(exam.getId(), responseDto);
+            encode(responseDto);
+        }
+        log.debug("Preloaded {} of {} exams", found.size(), examIds.size());
+
+        return found;
+    }
+
+    private void encode(ExamResponseDto responseDto) {
+        if (!encodedExamCache.isEnabled() || encodedExamCache.find(responseDto.getId(), responseDto.getVersion()).isPresent()) {
+            return;
+        }
+
+        try {
+            encodedExamCache.put(responseDto.getId(), responseDto.getVersion(), objectMapper.writeValueAsBytes(responseDto));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to encode exam with ID {} while preloading: {}", responseDto.getId(), e.getMessage());
+        }
+    }
+}
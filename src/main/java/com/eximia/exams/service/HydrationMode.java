@@ -0,0 +1,17 @@
+package com.eximia.exams.service;
+
+/**
+ * How criteria queries load the child documents (questions and options) of their results.
+ */
+public enum HydrationMode {
+
+    /**
+     * One query for the parents plus one {@code $in} query per child collection.
+     */
+    BATCHED,
+
+    /**
+     * A single aggregation that joins the children server-side with {@code $lookup}.
+     */
+    AGGREGATION
+}
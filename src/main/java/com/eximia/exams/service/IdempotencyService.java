@@ -0,0 +1,259 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.IdempotencyRecord;
+import com.eximia.exams.domain.enums.IdempotencyStatus;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.exception.CustomException;
+import com.eximia.exams.exception.IdempotencyConflictException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a creation at most once per idempotency key and answers replays with the original result.
+ * <p>
+ * The first caller claims the key by inserting an {@code IN_PROGRESS} record, so concurrent duplicates
+ * are told to retry instead of creating a second exam. Completed keys are also kept in an in-process
+ * cache, so most replays are answered without touching {@code idempotency_keys}.
+ * <p>
+ * Batch consumers claim a whole batch at once through {@link #claimAll}, recording the id of the exam
+ * prepared for each key up front. Since an exam document is written after its questions and options,
+ * finding that exam tells a redelivery its first attempt went through.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration inProgressTimeout;
+    private final Cache<String, String> completedKeys;
+
+    public IdempotencyService(MongoTemplate mongoTemplate,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.in-progress-timeout:60s}") Duration inProgressTimeout,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.inProgressTimeout = inProgressTimeout;
+        this.completedKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} unless {@code key} was already used, in which case the exam created for it is
+     * loaded through {@code replay}. A {@code null} key runs the action without any bookkeeping.
+     */
+    public ExamResponseDto execute(String key, Supplier<ExamResponseDto> action,
+                                   Function<String, ExamResponseDto> replay) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new CustomException("Idempotency key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String completedId = completedKeys.getIfPresent(key);
+        if (completedId != null) {
+            log.info("Replaying result for idempotency key: {}", key);
+            return replay.apply(completedId);
+        }
+
+        if (!claim(key)) {
+            IdempotencyRecord record = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (record != null && record.getStatus() == IdempotencyStatus.COMPLETED) {
+                log.info("Replaying result for idempotency key: {}", key);
+                completedKeys.put(key, record.getExamId());
+                return replay.apply(record.getExamId());
+            }
+            // The record vanishes when its request failed, and can be taken over when its request died
+            boolean claimed = record == null ? claim(key) : claimStale(record, null);
+            if (!claimed) {
+                throw new IdempotencyConflictException("A request with idempotency key " + key + " is still in progress");
+            }
+        }
+
+        ExamResponseDto result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            // Release the key so the client, or the listener retry, can try again
+            mongoTemplate.remove(Query.query(Criteria.where("id").is(key)), IdempotencyRecord.class);
+            throw e;
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(key)),
+                new Update().set("status", IdempotencyStatus.COMPLETED).set("exam_id", result.getId()),
+                IdempotencyRecord.class);
+        completedKeys.put(key, result.getId());
+
+        return result;
+    }
+
+    /**
+     * Claims every key for the exam prepared under it, with one query and one bulk insert for the whole
+     * batch. Keys that were used before are reported in {@link Claims} instead of being claimed.
+     */
+    public Claims claimAll(Map<String, String> examIdsByKey) {
+        Map<String, String> completed = new HashMap<>();
+        Set<String> inProgress = new HashSet<>();
+        Map<String, String> abandoned = new HashMap<>();
+
+        Set<String> unknownKeys = new HashSet<>();
+        examIdsByKey.keySet().forEach(key -> {
+            String completedId = completedKeys.getIfPresent(key);
+            if (completedId != null) {
+                completed.put(key, completedId);
+            } else {
+                unknownKeys.add(key);
+            }
+        });
+        if (unknownKeys.isEmpty()) {
+            return new Claims(completed, inProgress, abandoned);
+        }
+
+        List<IdempotencyRecord> records = mongoTemplate.find(
+                Query.query(Criteria.where("id").in(unknownKeys)), IdempotencyRecord.class);
+        Set<String> writtenExamIds = writtenExamIds(records);
+
+        for (IdempotencyRecord record : records) {
+            String key = record.getId();
+            unknownKeys.remove(key);
+
+            if (record.getStatus() == IdempotencyStatus.COMPLETED || writtenExamIds.contains(record.getExamId())) {
+                completed.put(key, record.getExamId());
+            } else if (claimStale(record, examIdsByKey.get(key))) {
+                abandoned.put(key, record.getExamId());
+            } else {
+                inProgress.add(key);
+            }
+        }
+        completeAll(completed);
+
+        List<IdempotencyRecord> claims = unknownKeys.stream()
+                .map(key -> IdempotencyRecord.builder()
+                        .id(key)
+                        .status(IdempotencyStatus.IN_PROGRESS)
+                        .examId(examIdsByKey.get(key))
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .toList();
+        if (!claims.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IdempotencyRecord.class)
+                        .insert(claims)
+                        .execute();
+            } catch (BulkOperationException e) {
+                // Claimed concurrently since the lookup
+                e.getErrors().forEach(error -> inProgress.add(claims.get(error.getIndex()).getId()));
+            }
+        }
+
+        return new Claims(completed, inProgress, abandoned);
+    }
+
+    /**
+     * Marks the keys as used by the exams they map to.
+     */
+    public void completeAll(Map<String, String> examIdsByKey) {
+        if (examIdsByKey.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(examIdsByKey.keySet())),
+                new Update().set("status", IdempotencyStatus.COMPLETED),
+                IdempotencyRecord.class);
+        completedKeys.putAll(examIdsByKey);
+    }
+
+    /**
+     * Releases claimed keys whose creation failed, so a retry can claim them again.
+     */
+    public void releaseAll(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(keys)), IdempotencyRecord.class);
+        }
+    }
+
+    private Set<String> writtenExamIds(List<IdempotencyRecord> records) {
+        List<String> examIds = records.stream()
+                .map(IdempotencyRecord::getExamId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (examIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Query query = Query.query(Criteria.where("id").in(examIds));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Exam.class).stream()
+                .map(Exam::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private boolean claim(String key) {
+        try {
+            mongoTemplate.insert(IdempotencyRecord.builder()
+                    .id(key)
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes over a key left {@code IN_PROGRESS} by a request that died before completing it. Only one of
+     * several concurrent callers wins, because the update is conditional on the timestamp it read.
+     */
+    private boolean claimStale(IdempotencyRecord record, String examId) {
+        if (record.getCreatedAt().isAfter(LocalDateTime.now().minus(inProgressTimeout))) {
+            return false;
+        }
+
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(record.getId())
+                        .and("status").is(IdempotencyStatus.IN_PROGRESS)
+                        .and("created_at").is(record.getCreatedAt())),
+                new Update().set("created_at", LocalDateTime.now()).set("exam_id", examId),
+                IdempotencyRecord.class).getModifiedCount() == 1;
+    }
+
+    /**
+     * Outcome of {@link #claimAll} for the keys that were not claimed afresh.
+     *
+     * @param completed  keys whose exam was created, mapped to that exam
+     * @param inProgress keys held by an attempt that may still be running
+     * @param abandoned  keys taken over from an attempt that died before writing its exam, mapped to the
+     *                   id that attempt prepared, or {@code null} if it recorded none
+     */
+    public record Claims(Map<String, String> completed, Set<String> inProgress, Map<String, String> abandoned) {
+    }
+}
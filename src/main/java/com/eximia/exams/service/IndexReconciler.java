@@ -0,0 +1,210 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.dto.response.IndexReportDto;
+import com.eximia.exams.service.IndexRegistry.ManagedIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the indexes declared in {@link IndexRegistry} that are missing and reports how the existing
+ * ones are used.
+ * <p>
+ * Builds run one index at a time on a background thread, so a large collection never has several
+ * builds competing for the same resources and startup does not wait for them. Indexes are never
+ * dropped here: unused or undeclared ones are only reported. Required indexes are the exception to
+ * building in the background: they are built on every startup, before the application reports ready.
+ */
+@Slf4j
+@Service
+public class IndexReconciler {
+
+    private static final String ID_INDEX = "_id_";
+    private static final String TEXT = "text";
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexRegistry indexRegistry;
+    private final boolean reconcileOnStartup;
+    private final ReentrantLock reconciling = new ReentrantLock();
+
+    public IndexReconciler(MongoTemplate mongoTemplate,
+                           IndexRegistry indexRegistry,
+                           @Value("${app.mongodb.indexes.reconcile-on-startup:false}") boolean reconcileOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexRegistry = indexRegistry;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        reconcile(ManagedIndex::required);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (reconcileOnStartup) {
+            Thread.ofVirtual().name("index-reconciler").start(this::reconcile);
+        }
+    }
+
+    /**
+     * Creates every missing managed index and returns the names of those created. Concurrent calls
+     * return immediately without building anything.
+     */
+    public List<String> reconcile() {
+        return reconcile(managedIndex -> true);
+    }
+
+    private List<String> reconcile(Predicate<ManagedIndex> selected) {
+        if (!reconciling.tryLock()) {
+            log.info("Index reconciliation already running");
+            return List.of();
+        }
+
+        List<String> created = new ArrayList<>();
+        try {
+            for (ManagedIndex managedIndex : indexRegistry.getIndexes()) {
+                if (!selected.test(managedIndex)) {
+                    continue;
+                }
+                String collection = mongoTemplate.getCollectionName(managedIndex.entityClass());
+                try {
+                    if (findExisting(collection, managedIndex) != null) {
+                        continue;
+                    }
+
+                    log.info("Building index {} on {}", managedIndex.name(), collection);
+                    mongoTemplate.indexOps(collection).ensureIndex(managedIndex.index());
+                    created.add(collection + "." + managedIndex.name());
+                } catch (RuntimeException e) {
+                    log.error("Could not build index {} on {}: {}", managedIndex.name(), collection, e.getMessage(), e);
+                }
+            }
+            log.info("Index reconciliation finished, {} indexes created", created.size());
+        } finally {
+            reconciling.unlock();
+        }
+
+        return created;
+    }
+
+    /**
+     * Reports, per collection with managed indexes, which declared indexes are missing, which existing
+     * ones have not been used since their {@code $indexStats} counters were last reset and which exist
+     * without being declared.
+     */
+    public List<IndexReportDto> report() {
+        Map<String, List<ManagedIndex>> managedByCollection = indexRegistry.getIndexes().stream()
+                .collect(Collectors.groupingBy(index -> mongoTemplate.getCollectionName(index.entityClass()),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<IndexReportDto> reports = new ArrayList<>();
+        managedByCollection.forEach((collection, managedIndexes) -> {
+            List<Document> existing = listIndexes(collection);
+            Map<String, Long> accesses = indexAccesses(collection);
+
+            List<String> missing = new ArrayList<>();
+            List<String> matched = new ArrayList<>();
+            for (ManagedIndex managedIndex : managedIndexes) {
+                Document index = findExisting(existing, managedIndex);
+                if (index == null) {
+                    missing.add(managedIndex.name());
+                } else {
+                    matched.add(index.getString("name"));
+                }
+            }
+
+            List<String> unmanaged = existing.stream()
+                    .map(index -> index.getString("name"))
+                    .filter(name -> !ID_INDEX.equals(name) && !matched.contains(name))
+                    .collect(Collectors.toList());
+
+            // TTL deletes are not counted as accesses, so TTL indexes would always look unused
+            List<String> unused = existing.stream()
+                    .filter(index -> !index.containsKey("expireAfterSeconds"))
+                    .map(index -> index.getString("name"))
+                    .filter(name -> !ID_INDEX.equals(name) && accesses.getOrDefault(name, 0L) == 0L)
+                    .collect(Collectors.toList());
+
+            reports.add(IndexReportDto.builder()
+                    .collection(collection)
+                    .missing(missing)
+                    .unused(unused)
+                    .unmanaged(unmanaged)
+                    .accesses(accesses)
+                    .build());
+        });
+
+        return reports;
+    }
+
+    private Document findExisting(String collection, ManagedIndex managedIndex) {
+        return findExisting(listIndexes(collection), managedIndex);
+    }
+
+    /**
+     * Matches by key pattern rather than by name, so an equivalent index created by hand counts as present.
+     * Text indexes are stored under {@code _fts}, so those are matched by the fields in their weights.
+     */
+    private static Document findExisting(List<Document> existing, ManagedIndex managedIndex) {
+        Document keys = managedIndex.index().getIndexKeys();
+        return existing.stream()
+                .filter(index -> keys.containsValue(TEXT)
+                        ? sameTextFields(keys, index.get("weights", Document.class))
+                        : sameKeys(keys, index.get("key", Document.class)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean sameTextFields(Document expected, Document weights) {
+        return weights != null && weights.keySet().equals(expected.keySet());
+    }
+
+    private static boolean sameKeys(Document expected, Document actual) {
+        if (actual == null || expected.size() != actual.size()) {
+            return false;
+        }
+
+        List<String> expectedFields = new ArrayList<>(expected.keySet());
+        List<String> actualFields = new ArrayList<>(actual.keySet());
+        if (!expectedFields.equals(actualFields)) {
+            return false;
+        }
+
+        return expectedFields.stream().allMatch(field -> sameDirection(expected.get(field), actual.get(field)));
+    }
+
+    private static boolean sameDirection(Object expected, Object actual) {
+        if (expected instanceof Number expectedNumber && actual instanceof Number actualNumber) {
+            return expectedNumber.intValue() == actualNumber.intValue();
+        }
+        return Objects.equals(expected, actual);
+    }
+
+    private List<Document> listIndexes(String collection) {
+        return mongoTemplate.getCollection(collection).listIndexes().into(new ArrayList<>());
+    }
+
+    private Map<String, Long> indexAccesses(String collection) {
+        Map<String, Long> accesses = new LinkedHashMap<>();
+        mongoTemplate.getCollection(collection)
+                .aggregate(List.of(new Document("$indexStats", new Document())))
+                .forEach(stats -> accesses.put(stats.getString("name"),
+                        ((Number) stats.get("accesses", Document.class).get("ops")).longValue()));
+        return accesses;
+    }
+}
@@ -0,0 +1,102 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.ExamAccessStats;
+import com.eximia.exams.domain.entities.IdempotencyRecord;
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Declares every secondary index the service relies on, next to the queries that need it. Index
+ * auto-creation is off, so {@link IndexReconciler} builds these from here instead of from annotations.
+ * Indexes the service cannot work without are marked required and built on every startup.
+ */
+@Component
+public class IndexRegistry {
+
+    private final List<ManagedIndex> indexes;
+
+    public IndexRegistry(@Value("${app.idempotency.ttl:24h}") Duration idempotencyTtl) {
+        this.indexes = List.of(
+                // Criteria filters on exams
+                new ManagedIndex(Exam.class, new Index()
+                        .on("created_by", Sort.Direction.ASC)
+                        .named("created_by")),
+                new ManagedIndex(Exam.class, new Index()
+                        .on("subject", Sort.Direction.ASC)
+                        .on("difficulty_level", Sort.Direction.ASC)
+                        .named("subject_difficulty_level")),
+                new ManagedIndex(Exam.class, new Index()
+                        .on("created_at", Sort.Direction.ASC)
+                        .named("created_at")),
+                // Sorting and keyset scrolling by title. The case-insensitive title prefix cannot seek on it
+                new ManagedIndex(Exam.class, new Index()
+                        .on("title", Sort.Direction.ASC)
+                        .named("title")),
+                // Text search on exams, a title match weighs the most. Text criteria fail without it
+                new ManagedIndex(Exam.class, new TextIndexDefinitionBuilder()
+                        .onField("title", 3F)
+                        .onField("description")
+                        .onField("subject", 2F)
+                        .named("exam_text")
+                        .build(), true),
+                // findByExamIdOrderByOrderIndexAsc, batched hydration, $lookup and deleteByExamId
+                new ManagedIndex(Question.class, new Index()
+                        .on("exam_id", Sort.Direction.ASC)
+                        .on("order_index", Sort.Direction.ASC)
+                        .named("exam_id_order_index")),
+                new ManagedIndex(Question.class, new TextIndexDefinitionBuilder()
+                        .onField("question_text", 2F)
+                        .onField("explanation")
+                        .named("question_text")
+                        .build(), true),
+                // findByQuestionIdOrderByOrderIndexAsc, batched hydration, $lookup and deleteByQuestionId
+                new ManagedIndex(Option.class, new Index()
+                        .on("question_id", Sort.Direction.ASC)
+                        .on("order_index", Sort.Direction.ASC)
+                        .named("question_id_order_index")),
+                new ManagedIndex(Option.class, new TextIndexDefinitionBuilder()
+                        .onField("option_text", 2F)
+                        .onField("explanation")
+                        .named("option_text")
+                        .build(), true),
+                // Most read exams preloaded on startup
+                new ManagedIndex(ExamAccessStats.class, new Index()
+                        .on("count", Sort.Direction.DESC)
+                        .named("count")),
+                // Expires idempotency keys, nothing else ever deletes them
+                new ManagedIndex(IdempotencyRecord.class, new Index()
+                        .on("created_at", Sort.Direction.ASC)
+                        .expire(idempotencyTtl)
+                        .named("created_at_ttl"), true)
+        );
+    }
+
+    public List<ManagedIndex> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * @param required built before the application reports ready, whatever
+     *                 {@code app.mongodb.indexes.reconcile-on-startup} says
+     */
+    public record ManagedIndex(Class<?> entityClass, IndexDefinition index, boolean required) {
+
+        public ManagedIndex(Class<?> entityClass, IndexDefinition index) {
+            this(entityClass, index, false);
+        }
+
+        public String name() {
+            return index.getIndexOptions().getString("name");
+        }
+    }
+}
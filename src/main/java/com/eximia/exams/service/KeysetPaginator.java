@@ -0,0 +1,114 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.dto.response.CursorSliceDto;
+import com.eximia.exams.exception.CustomException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Pages a query by keyset instead of skip/limit: every slice starts right after the sort key and
+ * {@code _id} of the previous one, so reading deep slices costs the same as reading the first.
+ * <p>
+ * The cursor is an opaque token holding those keys as extended JSON, plus the sort it was issued for,
+ * so a cursor cannot be replayed against a different ordering. Keys are converted to their stored BSON
+ * types first, and only properties every document has a value for can be sorted by, since a keyset
+ * cannot resume after a missing value.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginator {
+
+    private static final JsonWriterSettings CURSOR_JSON = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Reads the slice of {@code query} after {@code cursor} (the first slice when it is {@code null}),
+     * ordered by the pageable's sort with {@code _id} as tie-breaker, and maps it with {@code mapper}.
+     * The sort may only use {@code sortableProperties}.
+     */
+    public <E, D> CursorSliceDto<D> scroll(Query query, Pageable pageable, String cursor, Class<E> entityClass,
+                                          Set<String> sortableProperties, Function<List<E>, List<D>> mapper) {
+        Sort sort = withIdTieBreaker(pageable.getSort());
+        for (Sort.Order order : sort) {
+            if (!order.getProperty().equals("id") && !sortableProperties.contains(order.getProperty())) {
+                throw new CustomException(String.format("Cannot scroll by '%s', sort by one of %s",
+                        order.getProperty(), new TreeSet<>(sortableProperties)));
+            }
+        }
+
+        query.with(sort)
+                .limit(pageable.getPageSize())
+                .with(decode(cursor, sort));
+
+        Window<E> window = mongoTemplate.scroll(query, entityClass);
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode((KeysetScrollPosition) window.positionAt(window.size() - 1), sort, mongoTemplate.getConverter())
+                : null;
+
+        return CursorSliceDto.<D>builder()
+                .content(mapper.apply(window.getContent()))
+                .size(window.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static Sort withIdTieBreaker(Sort sort) {
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    static String encode(KeysetScrollPosition position, Sort sort, MongoConverter converter) {
+        // Keys come as entity values (LocalDateTime, enums, ...) that BSON cannot encode as they are
+        Document keys = new Document();
+        position.getKeys().forEach((property, value) -> keys.append(property, converter.convertToMongoType(value)));
+
+        String json = new Document("sort", sort.toString())
+                .append("keys", keys)
+                .toJson(CURSOR_JSON);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Document token;
+        try {
+            token = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new CustomException("Invalid cursor");
+        }
+
+        Document keys = token.get("keys", Document.class);
+        if (keys == null || !sort.toString().equals(token.getString("sort"))) {
+            throw new CustomException("Cursor does not match the requested sort");
+        }
+
+        return ScrollPosition.forward(keys);
+    }
+}
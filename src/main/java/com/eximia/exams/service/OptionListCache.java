@@ -0,0 +1,87 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.OptionResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Caches the ordered options of each question as an immutable list, including questions without options.
+ * <p>
+ * {@code OptionServiceImpl} evicts the questions it writes to, and every {@link ExamChangedEvent} evicts
+ * the questions it lists, which covers options replaced as part of an exam update.
+ */
+@Slf4j
+@Component
+public class OptionListCache {
+
+    public static final String OPTIONS_CACHE = "options";
+
+    private final Cache<String, List<OptionResponseDto>> optionsByQuestionId;
+
+    public OptionListCache(@Value("${app.cache.options.size:50000}") long size,
+                           @Value("${app.cache.options.ttl:10m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.optionsByQuestionId = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, optionsByQuestionId, OPTIONS_CACHE);
+    }
+
+    public List<OptionResponseDto> get(String questionId, Function<String, List<OptionResponseDto>> loader) {
+        return optionsByQuestionId.get(questionId, key -> List.copyOf(loader.apply(key)));
+    }
+
+    /**
+     * Returns the options of every question in {@code questionIds}, loading all the missing ones with a
+     * single call to {@code loader}. Questions the loader has no options for are cached as empty.
+     */
+    public Map<String, List<OptionResponseDto>> getAll(
+            Collection<String> questionIds,
+            Function<Set<String>, Map<String, List<OptionResponseDto>>> loader) {
+        return optionsByQuestionId.getAll(questionIds, missing -> {
+            Set<String> missingIds = Set.copyOf(missing);
+            Map<String, List<OptionResponseDto>> loaded = loader.apply(missingIds);
+
+            Map<String, List<OptionResponseDto>> entries = new HashMap<>();
+            for (String questionId : missingIds) {
+                entries.put(questionId, List.copyOf(loaded.getOrDefault(questionId, List.of())));
+            }
+            return entries;
+        });
+    }
+
+    public void evict(String questionId) {
+        optionsByQuestionId.invalidate(questionId);
+    }
+
+    public void evictAll(Collection<String> questionIds) {
+        optionsByQuestionId.invalidateAll(questionIds);
+    }
+
+    @EventListener
+    @Order(2)
+    public void onExamChanged(ExamChangedEvent event) {
+        if (!event.getQuestionIds().isEmpty()) {
+            evictAll(event.getQuestionIds());
+            log.debug("Evicted cached options of {} questions", event.getQuestionIds().size());
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.eximia.exams.service;
 
 import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.dto.response.CursorSliceDto;
 import com.eximia.exams.dto.response.OptionResponseDto;
+import com.eximia.exams.dto.response.QueryExplanationDto;
 import com.eximia.exams.mapper.OptionMapper;
 import com.eximia.exams.repository.OptionRepository;
 import com.eximia.exams.dto.criteria.OptionCriteria;
@@ -9,17 +11,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,31 +29,53 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class OptionQueryService {
 
+    // Properties every option has a value for, the only ones a keyset can resume after
+    private static final Set<String> SCROLL_SORTS = Set.of("createdAt", "updatedAt");
+
+    private static final CriteriaSpec<OptionCriteria> CRITERIA_SPEC = CriteriaSpec.of(OptionCriteria.class)
+            .exact("id", OptionCriteria::getId)
+            .exact("question_id", OptionCriteria::getQuestionId)
+            .text("option_text", OptionCriteria::getOptionText)
+            .exact("is_correct", OptionCriteria::getIsCorrect)
+            .text("explanation", OptionCriteria::getExplanation)
+            .exact("created_by", OptionCriteria::getCreatedBy)
+            .exact("updated_by", OptionCriteria::getUpdatedBy)
+            .range("created_at", OptionCriteria::getCreatedAtFrom, OptionCriteria::getCreatedAtTo)
+            .range("updated_at", OptionCriteria::getUpdatedAtFrom, OptionCriteria::getUpdatedAtTo)
+            .range("points", OptionCriteria::getPointsMin, OptionCriteria::getPointsMax)
+            .range("order_index", OptionCriteria::getOrderIndexMin, OptionCriteria::getOrderIndexMax)
+            .search(OptionCriteria::getSearchText, "option_text", "explanation")
+            .regexFlag(OptionCriteria::getRegex);
+
     private final MongoTemplate mongoTemplate;
     private final OptionRepository optionRepository;
     private final OptionMapper optionMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final QueryCountStrategy countStrategy;
+    private final QueryStreamer queryStreamer;
+    private final QueryExplainer queryExplainer;
+    private final CriteriaCompiler criteriaCompiler;
 
     public Page<OptionResponseDto> findByCriteria(OptionCriteria optionCriteria, Pageable pageable) {
         log.debug("Finding options by criteria: {}", optionCriteria);
 
-        Query query = createQuery(optionCriteria);
-        query.with(pageable);
-
-        List<Option> options = mongoTemplate.find(query, Option.class);
+        return countStrategy.page(findPage(optionCriteria, pageable), pageable, createQuery(optionCriteria),
+                Option.class);
+    }
 
-        long total = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Option.class);
+    /**
+     * Pages options without computing a total, only whether a next page exists.
+     */
+    public Slice<OptionResponseDto> findSliceByCriteria(OptionCriteria optionCriteria, Pageable pageable) {
+        log.debug("Finding option slice by criteria: {}", optionCriteria);
 
-        List<OptionResponseDto> optionDtos = options.stream()
-                .map(optionMapper::toResponseDto)
-                .collect(Collectors.toList());
-
-        return PageableExecutionUtils.getPage(optionDtos, pageable, () -> total);
+        return countStrategy.slice(pageable, page -> findPage(optionCriteria, page));
     }
 
     public List<OptionResponseDto> findByCriteria(OptionCriteria optionCriteria) {
         log.debug("Finding all options by criteria: {}", optionCriteria);
 
-        Query query = createQuery(optionCriteria);
+        Query query = TextSearch.withPageable(createQuery(optionCriteria), Pageable.unpaged());
 
         List<Option> options = mongoTemplate.find(query, Option.class);
 
@@ -61,89 +84,53 @@ public class OptionQueryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Reads the slice of matching options after {@code cursor}.
+     */
+    public CursorSliceDto<OptionResponseDto> scrollByCriteria(OptionCriteria optionCriteria, Pageable pageable,
+                                                             String cursor) {
+        log.debug("Scrolling options by criteria: {}", optionCriteria);
+
+        return keysetPaginator.scroll(createQuery(optionCriteria), pageable, cursor, Option.class, SCROLL_SORTS,
+                options -> options.stream()
+                        .map(optionMapper::toResponseDto)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Reads every matching option through a cursor, one chunk at a time.
+     */
+    public void streamByCriteria(OptionCriteria optionCriteria, Consumer<List<OptionResponseDto>> consumer) {
+        log.debug("Streaming options by criteria: {}", optionCriteria);
+
+        queryStreamer.stream(TextSearch.withPageable(createQuery(optionCriteria), Pageable.unpaged()), Option.class,
+                options -> options.stream()
+                        .map(optionMapper::toResponseDto)
+                        .collect(Collectors.toList()), consumer);
+    }
+
+    /**
+     * Explains the query a page of {@link #findByCriteria(OptionCriteria, Pageable)} runs, as a plain find.
+     */
+    public QueryExplanationDto explainByCriteria(OptionCriteria optionCriteria, Pageable pageable) {
+        return queryExplainer.explain(TextSearch.withPageable(createQuery(optionCriteria), pageable), Option.class);
+    }
+
     public long countByCriteria(OptionCriteria optionCriteria) {
         Query query = createQuery(optionCriteria);
-        return mongoTemplate.count(query, Option.class);
+        return countStrategy.count(query, Option.class);
+    }
+
+    private List<OptionResponseDto> findPage(OptionCriteria optionCriteria, Pageable pageable) {
+        Query query = TextSearch.withPageable(createQuery(optionCriteria), pageable);
+
+        return mongoTemplate.find(query, Option.class).stream()
+                .map(optionMapper::toResponseDto)
+                .collect(Collectors.toList());
     }
 
     private Query createQuery(OptionCriteria optionCriteria) {
-        Query query = new Query();
-        List<Criteria> criteriaList = new ArrayList<>();
-
-        if (StringUtils.hasText(optionCriteria.getId())) {
-            criteriaList.add(Criteria.where("id").is(optionCriteria.getId()));
-        }
-        if (StringUtils.hasText(optionCriteria.getQuestionId())) {
-            criteriaList.add(Criteria.where("question_id").is(optionCriteria.getQuestionId()));
-        }
-        if (StringUtils.hasText(optionCriteria.getOptionText())) {
-            Pattern pattern = Pattern.compile(optionCriteria.getOptionText(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(Criteria.where("option_text").regex(pattern));
-        }
-        if (optionCriteria.getIsCorrect() != null) {
-            criteriaList.add(Criteria.where("is_correct").is(optionCriteria.getIsCorrect()));
-        }
-        if (StringUtils.hasText(optionCriteria.getExplanation())) {
-            Pattern pattern = Pattern.compile(optionCriteria.getExplanation(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(Criteria.where("explanation").regex(pattern));
-        }
-        if (StringUtils.hasText(optionCriteria.getCreatedBy())) {
-            criteriaList.add(Criteria.where("created_by").is(optionCriteria.getCreatedBy()));
-        }
-        if (StringUtils.hasText(optionCriteria.getUpdatedBy())) {
-            criteriaList.add(Criteria.where("updated_by").is(optionCriteria.getUpdatedBy()));
-        }
-        if (optionCriteria.getCreatedAtFrom() != null || optionCriteria.getCreatedAtTo() != null) {
-            Criteria dateCriteria = Criteria.where("created_at");
-            if (optionCriteria.getCreatedAtFrom() != null) {
-                dateCriteria = dateCriteria.gte(optionCriteria.getCreatedAtFrom());
-            }
-            if (optionCriteria.getCreatedAtTo() != null) {
-                dateCriteria = dateCriteria.lte(optionCriteria.getCreatedAtTo());
-            }
-            criteriaList.add(dateCriteria);
-        }
-        if (optionCriteria.getUpdatedAtFrom() != null || optionCriteria.getUpdatedAtTo() != null) {
-            Criteria dateCriteria = Criteria.where("updated_at");
-            if (optionCriteria.getUpdatedAtFrom() != null) {
-                dateCriteria = dateCriteria.gte(optionCriteria.getUpdatedAtFrom());
-            }
-            if (optionCriteria.getUpdatedAtTo() != null) {
-                dateCriteria = dateCriteria.lte(optionCriteria.getUpdatedAtTo());
-            }
-            criteriaList.add(dateCriteria);
-        }
-        if (optionCriteria.getPointsMin() != null || optionCriteria.getPointsMax() != null) {
-            Criteria pointsCriteria = Criteria.where("points");
-            if (optionCriteria.getPointsMin() != null) {
-                pointsCriteria = pointsCriteria.gte(optionCriteria.getPointsMin());
-            }
-            if (optionCriteria.getPointsMax() != null) {
-                pointsCriteria = pointsCriteria.lte(optionCriteria.getPointsMax());
-            }
-            criteriaList.add(pointsCriteria);
-        }
-        if (optionCriteria.getOrderIndexMin() != null || optionCriteria.getOrderIndexMax() != null) {
-            Criteria orderCriteria = Criteria.where("order_index");
-            if (optionCriteria.getOrderIndexMin() != null) {
-                orderCriteria = orderCriteria.gte(optionCriteria.getOrderIndexMin());
-            }
-            if (optionCriteria.getOrderIndexMax() != null) {
-                orderCriteria = orderCriteria.lte(optionCriteria.getOrderIndexMax());
-            }
-            criteriaList.add(orderCriteria);
-        }
-        if (StringUtils.hasText(optionCriteria.getSearchText())) {
-            Pattern pattern = Pattern.compile(optionCriteria.getSearchText(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(new Criteria().orOperator(
-                    Criteria.where("option_text").regex(pattern),
-                    Criteria.where("explanation").regex(pattern)
-            ));
-        }
-        if (!criteriaList.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteriaList.toArray(new Criteria[0])));
-        }
-
-        return query;
+        Criteria criteria = criteriaCompiler.compile(CRITERIA_SPEC, optionCriteria);
+        return criteria != null ? new Query(criteria) : new Query();
     }
-}
\ No newline at end of file
+}
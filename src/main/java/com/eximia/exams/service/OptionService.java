@@ -5,7 +5,9 @@ import com.eximia.exams.dto.response.OptionResponseDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface OptionService {
 
@@ -15,6 +17,8 @@ public interface OptionService {
 
     List<OptionResponseDto> getOptionsByQuestionId(String questionId);
 
+    Map<String, List<OptionResponseDto>> getOptionsByQuestionIds(Collection<String> questionIds);
+
     OptionResponseDto updateOption(String id, OptionRequestDto optionRequestDto);
 
     void deleteOption(String id);
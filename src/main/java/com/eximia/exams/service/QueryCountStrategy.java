@@ -0,0 +1,141 @@
+package com.eximia.exams.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Counts for the criteria query services.
+ * <ul>
+ *     <li>Page totals are only computed when {@link PageableExecutionUtils} cannot infer them from the
+ *     content, i.e. not on the last page.</li>
+ *     <li>Unfiltered counts use the collection metadata estimate instead of scanning.</li>
+ *     <li>Filtered counts are cached for a short time, keyed by collection and mapped filter.</li>
+ *     <li>Slices skip the total entirely: the page query reads one document more than the page, which
+ *     tells whether another page follows.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class QueryCountStrategy {
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+    private final Cache<String, Long> counts;
+
+    public QueryCountStrategy(MongoTemplate mongoTemplate,
+                              @Value("${app.query.count.cache-ttl:10s}") Duration cacheTtl,
+                              @Value("${app.query.count.cache-size:1000}") long cacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Counts the documents matching {@code query}, which must not be paged.
+     */
+    public long count(Query query, Class<?> entityClass) {
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(),
+                mongoTemplate.getConverter().getMappingContext().getPersistentEntity(entityClass));
+        String collectionName = mongoTemplate.getCollectionName(entityClass);
+
+        return counts.get(collectionName + ":" + filter.toJson(), key -> {
+            if (filter.isEmpty()) {
+                return mongoTemplate.estimatedCount(collectionName);
+            }
+            return mongoTemplate.count(query, entityClass);
+        });
+    }
+
+    /**
+     * Wraps a page of content, counting {@code query} only when the total cannot be inferred.
+     */
+    public <T> Page<T> page(List<T> content, Pageable pageable, Query query, Class<?> entityClass) {
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(query, entityClass));
+    }
+
+    /**
+     * Reads the page through {@code fetch} with one more document than the page holds, and wraps it
+     * without a total. The extra document only tells whether another page follows and is dropped.
+     */
+    public <T> Slice<T> slice(Pageable pageable, Function<Pageable, List<T>> fetch) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(fetch.apply(pageable), pageable, false);
+        }
+
+        List<T> content = fetch.apply(new OneMorePageable(pageable));
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * The same page, at the same offset, holding one more document.
+     */
+    private record OneMorePageable(Pageable page) implements Pageable {
+
+        @Override
+        public int getPageNumber() {
+            return page.getPageNumber();
+        }
+
+        @Override
+        public int getPageSize() {
+            return page.getPageSize() + 1;
+        }
+
+        @Override
+        public long getOffset() {
+            return page.getOffset();
+        }
+
+        @Override
+        public Sort getSort() {
+            return page.getSort();
+        }
+
+        @Override
+        public Pageable next() {
+            return page.next();
+        }
+
+        @Override
+        public Pageable previousOrFirst() {
+            return page.previousOrFirst();
+        }
+
+        @Override
+        public Pageable first() {
+            return page.first();
+        }
+
+        @Override
+        public Pageable withPage(int pageNumber) {
+            return page.withPage(pageNumber);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return page.hasPrevious();
+        }
+    }
+}
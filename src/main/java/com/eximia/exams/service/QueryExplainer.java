@@ -0,0 +1,165 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.dto.response.QueryExplanationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs {@code explain} with {@code executionStats} for the queries built by the criteria query
+ * services and summarizes how MongoDB answered them.
+ * <p>
+ * When the plan scans the collection, or examines more documents than it returns, the summary
+ * suggests an index ordered by the ESR rule: equality fields first, then the sort fields, then the
+ * range fields.
+ */
+@Slf4j
+@Component
+public class QueryExplainer {
+
+    private static final String COLLSCAN = "COLLSCAN";
+    private static final Set<String> RANGE_OPERATORS = Set.of("$gt", "$gte", "$lt", "$lte", "$ne", "$nin",
+            "$regex", "$exists");
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+
+    public QueryExplainer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    /**
+     * Explains {@code query} as a {@code find} on the collection of {@code entityClass}, with its sort,
+     * skip and limit.
+     */
+    public QueryExplanationDto explain(Query query, Class<?> entityClass) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(entityClass);
+        String collectionName = mongoTemplate.getCollectionName(entityClass);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+
+        Document find = new Document("find", collectionName).append("filter", filter);
+        if (!sort.isEmpty()) {
+            find.append("sort", sort);
+        }
+        if (query.getSkip() > 0) {
+            find.append("skip", query.getSkip());
+        }
+        if (query.isLimited()) {
+            find.append("limit", query.getLimit());
+        }
+
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", find)
+                .append("verbosity", "executionStats"));
+        log.debug("Explained query on {}: {}", collectionName, filter.toJson());
+
+        return summarize(collectionName, filter, sort, explain);
+    }
+
+    static QueryExplanationDto summarize(String collectionName, Document filter, Document sort, Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner.get("winningPlan", Document.class);
+        // Plans run by the slot-based engine nest the classic plan one level down
+        if (winningPlan.containsKey("queryPlan")) {
+            winningPlan = winningPlan.get("queryPlan", Document.class);
+        }
+
+        List<String> stages = new ArrayList<>();
+        Set<String> indexes = new LinkedHashSet<>();
+        walk(winningPlan, stages, indexes);
+
+        Document executionStats = explain.get("executionStats", Document.class);
+        long returned = longValue(executionStats, "nReturned");
+        long docsExamined = longValue(executionStats, "totalDocsExamined");
+        boolean collectionScan = stages.contains(COLLSCAN);
+
+        return QueryExplanationDto.builder()
+                .collection(collectionName)
+                .filter(filter.toJson())
+                .sort(sort.toJson())
+                .winningPlan(String.join(" <- ", stages))
+                .indexesUsed(new ArrayList<>(indexes))
+                .collectionScan(collectionScan)
+                .returned(returned)
+                .keysExamined(longValue(executionStats, "totalKeysExamined"))
+                .docsExamined(docsExamined)
+                .executionTimeMillis(longValue(executionStats, "executionTimeMillis"))
+                .suggestedIndex(collectionScan || docsExamined > returned ? suggestIndex(filter, sort) : null)
+                .build();
+    }
+
+    /**
+     * Orders the filter and sort fields by the ESR rule. Returns {@code null} when there is nothing a
+     * regular index could serve, e.g. a text search or an unfiltered, unsorted query.
+     */
+    static Map<String, Integer> suggestIndex(Document filter, Document sort) {
+        if (filter.containsKey("$text")) {
+            return null;
+        }
+
+        Map<String, Integer> equality = new LinkedHashMap<>();
+        Map<String, Integer> range = new LinkedHashMap<>();
+        collectFields(filter, equality, range);
+
+        Map<String, Integer> index = new LinkedHashMap<>(equality);
+        sort.forEach((field, direction) -> index.putIfAbsent(field, ((Number) direction).intValue()));
+        range.forEach(index::putIfAbsent);
+
+        return index.isEmpty() ? null : index;
+    }
+
+    private static void collectFields(Document filter, Map<String, Integer> equality, Map<String, Integer> range) {
+        filter.forEach((field, value) -> {
+            if ("$and".equals(field)) {
+                for (Object clause : (List<?>) value) {
+                    collectFields((Document) clause, equality, range);
+                }
+            } else if (!field.startsWith("$")) {
+                if (value instanceof Document operators && operators.keySet().stream().anyMatch(RANGE_OPERATORS::contains)) {
+                    range.putIfAbsent(field, 1);
+                } else {
+                    equality.putIfAbsent(field, 1);
+                }
+            }
+            // $or and $nor branches need an index each, so they are left out of a single suggestion
+        });
+    }
+
+    private static void walk(Document stage, List<String> stages, Set<String> indexes) {
+        String name = stage.getString("stage");
+        if (stage.containsKey("indexName")) {
+            indexes.add(stage.getString("indexName"));
+            Document keyPattern = stage.get("keyPattern", Document.class);
+            if (keyPattern != null) {
+                name += " " + keyPattern.toJson();
+            }
+        }
+        stages.add(name);
+
+        if (stage.containsKey("inputStage")) {
+            walk(stage.get("inputStage", Document.class), stages, indexes);
+        }
+        if (stage.containsKey("inputStages")) {
+            for (Document inputStage : stage.getList("inputStages", Document.class)) {
+                walk(inputStage, stages, indexes);
+            }
+        }
+    }
+
+    private static long longValue(Document document, String key) {
+        Object value = document != null ? document.get(key) : null;
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+}
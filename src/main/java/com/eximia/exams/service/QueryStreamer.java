@@ -0,0 +1,60 @@
+package com.eximia.exams.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Reads every result of a query through a cursor and hands it over in chunks, so an unbounded result
+ * never has to fit in memory at once.
+ * <p>
+ * The chunk size is also the cursor batch size: each chunk is one {@code getMore} round trip, hydrated
+ * with one query per child collection before the next one is read.
+ */
+@Slf4j
+@Component
+public class QueryStreamer {
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public QueryStreamer(MongoTemplate mongoTemplate,
+                         @Value("${app.query.stream.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Maps the results of {@code query} with {@code mapper} one chunk at a time and passes each mapped
+     * chunk to {@code consumer}, returning the number of results read.
+     */
+    public <E, D> long stream(Query query, Class<E> entityClass, Function<List<E>, List<D>> mapper,
+                              Consumer<List<D>> consumer) {
+        long count = 0;
+
+        try (Stream<E> results = mongoTemplate.stream(query.cursorBatchSize(batchSize), entityClass)) {
+            Iterator<E> iterator = results.iterator();
+            List<E> chunk = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == batchSize || !iterator.hasNext()) {
+                    consumer.accept(mapper.apply(chunk));
+                    count += chunk.size();
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        }
+
+        log.debug("Streamed {} {} documents", count, entityClass.getSimpleName());
+        return count;
+    }
+}
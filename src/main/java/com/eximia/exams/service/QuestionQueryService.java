@@ -1,25 +1,33 @@
 package com.eximia.exams.service;
 
 import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.dto.response.CursorSliceDto;
+import com.eximia.exams.dto.response.OptionResponseDto;
+import com.eximia.exams.dto.response.QueryExplanationDto;
 import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.dto.response.QuestionSummaryDto;
 import com.eximia.exams.mapper.QuestionMapper;
 import com.eximia.exams.repository.QuestionRepository;
 import com.eximia.exams.dto.criteria.QuestionCriteria;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,131 +36,168 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class QuestionQueryService {
 
+    // Properties every question has a value for, the only ones a keyset can resume after
+    private static final Set<String> SCROLL_SORTS = Set.of("questionText", "questionType", "createdAt", "updatedAt");
+
+    private static final CriteriaSpec<QuestionCriteria> CRITERIA_SPEC = CriteriaSpec.of(QuestionCriteria.class)
+            .exact("id", QuestionCriteria::getId)
+            .exact("exam_id", QuestionCriteria::getExamId)
+            .text("question_text", QuestionCriteria::getQuestionText)
+            .exact("question_type", QuestionCriteria::getQuestionType)
+            .text("explanation", QuestionCriteria::getExplanation)
+            .exact("created_by", QuestionCriteria::getCreatedBy)
+            .exact("updated_by", QuestionCriteria::getUpdatedBy)
+            .range("created_at", QuestionCriteria::getCreatedAtFrom, QuestionCriteria::getCreatedAtTo)
+            .range("updated_at", QuestionCriteria::getUpdatedAtFrom, QuestionCriteria::getUpdatedAtTo)
+            .range("points", QuestionCriteria::getPointsMin, QuestionCriteria::getPointsMax)
+            .range("order_index", QuestionCriteria::getOrderIndexMin, QuestionCriteria::getOrderIndexMax)
+            .search(QuestionCriteria::getSearchText, "question_text", "explanation")
+            .regexFlag(QuestionCriteria::getRegex);
+
     private final MongoTemplate mongoTemplate;
     private final QuestionRepository questionRepository;
     private final QuestionMapper questionMapper;
     private final OptionService optionService;
+    private final ExamTreeAggregator examTreeAggregator;
+    private final KeysetPaginator keysetPaginator;
+    private final QueryCountStrategy countStrategy;
+    private final QueryStreamer queryStreamer;
+    private final QueryExplainer queryExplainer;
+    private final CriteriaCompiler criteriaCompiler;
+
+    @Value("${app.mongodb.hydration-mode:aggregation}")
+    private HydrationMode hydrationMode;
 
     public Page<QuestionResponseDto> findByCriteria(QuestionCriteria questionCriteria, Pageable pageable) {
         log.debug("Finding questions by criteria: {}", questionCriteria);
 
-        Query query = createQuery(questionCriteria);
-        query.with(pageable);
+        return countStrategy.page(findPage(questionCriteria, pageable), pageable, createQuery(questionCriteria),
+                Question.class);
+    }
+
+    /**
+     * Pages questions without computing a total, only whether a next page exists.
+     */
+    public Slice<QuestionResponseDto> findSliceByCriteria(QuestionCriteria questionCriteria, Pageable pageable) {
+        log.debug("Finding question slice by criteria: {}", questionCriteria);
+
+        return countStrategy.slice(pageable, page -> findPage(questionCriteria, page));
+    }
+
+    public List<QuestionResponseDto> findByCriteria(QuestionCriteria questionCriteria) {
+        log.debug("Finding all questions by criteria: {}", questionCriteria);
+
+        if (hydrationMode == HydrationMode.AGGREGATION) {
+            return examTreeAggregator.findQuestions(createCriteria(questionCriteria), Pageable.unpaged());
+        }
+
+        Query query = TextSearch.withPageable(createQuery(questionCriteria), Pageable.unpaged());
 
         List<Question> questions = mongoTemplate.find(query, Question.class);
 
-        long total = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Question.class);
+        return toResponseDtosWithOptions(questions);
+    }
 
-        List<QuestionResponseDto> questionDtos = questions.stream()
-                .map(question -> {
-                    QuestionResponseDto dto = questionMapper.toResponseDto(question);
-                    dto.setOptions(optionService.getOptionsByQuestionId(question.getId()));
-                    return dto;
-                })
+    /**
+     * Reads the slice of matching questions after {@code cursor}, hydrating only that slice.
+     */
+    public CursorSliceDto<QuestionResponseDto> scrollByCriteria(QuestionCriteria questionCriteria, Pageable pageable,
+                                                               String cursor) {
+        log.debug("Scrolling questions by criteria: {}", questionCriteria);
+
+        return keysetPaginator.scroll(createQuery(questionCriteria), pageable, cursor, Question.class, SCROLL_SORTS,
+                this::toResponseDtosWithOptions);
+    }
+
+    /**
+     * Pages questions without hydrating their options.
+     */
+    public Page<QuestionSummaryDto> findSummariesByCriteria(QuestionCriteria questionCriteria, Pageable pageable) {
+        log.debug("Finding question summaries by criteria: {}", questionCriteria);
+
+        Criteria criteria = createCriteria(questionCriteria);
+        List<QuestionSummaryDto> summaries = examTreeAggregator.findQuestionSummaries(criteria, pageable);
+
+        return countStrategy.page(summaries, pageable, createQuery(questionCriteria), Question.class);
+    }
+
+    public List<QuestionSummaryDto> findSummariesByCriteria(QuestionCriteria questionCriteria) {
+        log.debug("Finding all question summaries by criteria: {}", questionCriteria);
+
+        return examTreeAggregator.findQuestionSummaries(createCriteria(questionCriteria), Pageable.unpaged());
+    }
+
+    /**
+     * Hydrates the given questions with one query per collection, in the order of {@code ids}. Ids that
+     * no longer exist are skipped.
+     */
+    public List<QuestionResponseDto> findByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Question> questions = mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Question.class);
+        Map<String, QuestionResponseDto> questionsById = toResponseDtosWithOptions(questions).stream()
+                .collect(Collectors.toMap(QuestionResponseDto::getId, Function.identity()));
+
+        return ids.stream()
+                .map(questionsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+    }
 
-        return PageableExecutionUtils.getPage(questionDtos, pageable, () -> total);
+    /**
+     * Reads every matching question through a cursor, hydrating and handing over one chunk at a time.
+     */
+    public void streamByCriteria(QuestionCriteria questionCriteria, Consumer<List<QuestionResponseDto>> consumer) {
+        log.debug("Streaming questions by criteria: {}", questionCriteria);
+
+        queryStreamer.stream(TextSearch.withPageable(createQuery(questionCriteria), Pageable.unpaged()), Question.class,
+                this::toResponseDtosWithOptions, consumer);
     }
 
-    public List<QuestionResponseDto> findByCriteria(QuestionCriteria questionCriteria) {
-        log.debug("Finding all questions by criteria: {}", questionCriteria);
+    /**
+     * Explains the query a page of {@link #findByCriteria(QuestionCriteria, Pageable)} runs, as a plain find.
+     */
+    public QueryExplanationDto explainByCriteria(QuestionCriteria questionCriteria, Pageable pageable) {
+        return queryExplainer.explain(TextSearch.withPageable(createQuery(questionCriteria), pageable), Question.class);
+    }
 
+    public long countByCriteria(QuestionCriteria questionCriteria) {
         Query query = createQuery(questionCriteria);
+        return countStrategy.count(query, Question.class);
+    }
 
-        List<Question> questions = mongoTemplate.find(query, Question.class);
+    private List<QuestionResponseDto> findPage(QuestionCriteria questionCriteria, Pageable pageable) {
+        if (hydrationMode == HydrationMode.AGGREGATION) {
+            return examTreeAggregator.findQuestions(createCriteria(questionCriteria), pageable);
+        }
+
+        Query query = TextSearch.withPageable(createQuery(questionCriteria), pageable);
+        return toResponseDtosWithOptions(mongoTemplate.find(query, Question.class));
+    }
+
+    private List<QuestionResponseDto> toResponseDtosWithOptions(List<Question> questions) {
+        List<String> questionIds = questions.stream()
+                .map(Question::getId)
+                .collect(Collectors.toList());
+        Map<String, List<OptionResponseDto>> optionsByQuestionId = optionService.getOptionsByQuestionIds(questionIds);
 
         return questions.stream()
                 .map(question -> {
                     QuestionResponseDto dto = questionMapper.toResponseDto(question);
-                    dto.setOptions(optionService.getOptionsByQuestionId(question.getId()));
+                    dto.setOptions(optionsByQuestionId.getOrDefault(question.getId(), new ArrayList<>()));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
-    public long countByCriteria(QuestionCriteria questionCriteria) {
-        Query query = createQuery(questionCriteria);
-        return mongoTemplate.count(query, Question.class);
-    }
-
     private Query createQuery(QuestionCriteria questionCriteria) {
-        Query query = new Query();
-        List<Criteria> criteriaList = new ArrayList<>();
-
-        if (StringUtils.hasText(questionCriteria.getId())) {
-            criteriaList.add(Criteria.where("id").is(questionCriteria.getId()));
-        }
-        if (StringUtils.hasText(questionCriteria.getExamId())) {
-            criteriaList.add(Criteria.where("exam_id").is(questionCriteria.getExamId()));
-        }
-        if (StringUtils.hasText(questionCriteria.getQuestionText())) {
-            Pattern pattern = Pattern.compile(questionCriteria.getQuestionText(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(Criteria.where("question_text").regex(pattern));
-        }
-        if (questionCriteria.getQuestionType() != null) {
-            criteriaList.add(Criteria.where("question_type").is(questionCriteria.getQuestionType()));
-        }
-        if (StringUtils.hasText(questionCriteria.getExplanation())) {
-            Pattern pattern = Pattern.compile(questionCriteria.getExplanation(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(Criteria.where("explanation").regex(pattern));
-        }
-        if (StringUtils.hasText(questionCriteria.getCreatedBy())) {
-            criteriaList.add(Criteria.where("created_by").is(questionCriteria.getCreatedBy()));
-        }
-        if (StringUtils.hasText(questionCriteria.getUpdatedBy())) {
-            criteriaList.add(Criteria.where("updated_by").is(questionCriteria.getUpdatedBy()));
-        }
-        if (questionCriteria.getCreatedAtFrom() != null || questionCriteria.getCreatedAtTo() != null) {
-            Criteria dateCriteria = Criteria.where("created_at");
-            if (questionCriteria.getCreatedAtFrom() != null) {
-                dateCriteria = dateCriteria.gte(questionCriteria.getCreatedAtFrom());
-            }
-            if (questionCriteria.getCreatedAtTo() != null) {
-                dateCriteria = dateCriteria.lte(questionCriteria.getCreatedAtTo());
-            }
-            criteriaList.add(dateCriteria);
-        }
-        if (questionCriteria.getUpdatedAtFrom() != null || questionCriteria.getUpdatedAtTo() != null) {
-            Criteria dateCriteria = Criteria.where("updated_at");
-            if (questionCriteria.getUpdatedAtFrom() != null) {
-                dateCriteria = dateCriteria.gte(questionCriteria.getUpdatedAtFrom());
-            }
-            if (questionCriteria.getUpdatedAtTo() != null) {
-                dateCriteria = dateCriteria.lte(questionCriteria.getUpdatedAtTo());
-            }
-            criteriaList.add(dateCriteria);
-        }
-        if (questionCriteria.getPointsMin() != null || questionCriteria.getPointsMax() != null) {
-            Criteria pointsCriteria = Criteria.where("points");
-            if (questionCriteria.getPointsMin() != null) {
-                pointsCriteria = pointsCriteria.gte(questionCriteria.getPointsMin());
-            }
-            if (questionCriteria.getPointsMax() != null) {
-                pointsCriteria = pointsCriteria.lte(questionCriteria.getPointsMax());
-            }
-            criteriaList.add(pointsCriteria);
-        }
-        if (questionCriteria.getOrderIndexMin() != null || questionCriteria.getOrderIndexMax() != null) {
-            Criteria orderCriteria = Criteria.where("order_index");
-            if (questionCriteria.getOrderIndexMin() != null) {
-                orderCriteria = orderCriteria.gte(questionCriteria.getOrderIndexMin());
-            }
-            if (questionCriteria.getOrderIndexMax() != null) {
-                orderCriteria = orderCriteria.lte(questionCriteria.getOrderIndexMax());
-            }
-            criteriaList.add(orderCriteria);
-        }
-        if (StringUtils.hasText(questionCriteria.getSearchText())) {
-            Pattern pattern = Pattern.compile(questionCriteria.getSearchText(), Pattern.CASE_INSENSITIVE);
-            criteriaList.add(new Criteria().orOperator(
-                    Criteria.where("question_text").regex(pattern),
-                    Criteria.where("explanation").regex(pattern)
-            ));
-        }
-        if (!criteriaList.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteriaList.toArray(new Criteria[0])));
-        }
+        Criteria criteria = createCriteria(questionCriteria);
+        return criteria != null ? new Query(criteria) : new Query();
+    }
 
-        return query;
+    private Criteria createCriteria(QuestionCriteria questionCriteria) {
+        return criteriaCompiler.compile(CRITERIA_SPEC, questionCriteria);
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,9 @@ package com.eximia.exams.service;
 import com.eximia.exams.dto.request.QuestionRequestDto;
 import com.eximia.exams.dto.response.QuestionResponseDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface QuestionService {
 
@@ -13,6 +15,8 @@ public interface QuestionService {
 
     List<QuestionResponseDto> getQuestionsByExamId(String examId);
 
+    Map<String, List<QuestionResponseDto>> getQuestionsByExamIds(Collection<String> examIds);
+
     QuestionResponseDto updateQuestion(String id, QuestionRequestDto questionRequestDto);
 
     void deleteQuestion(String id);
@@ -0,0 +1,522 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.OptionResponseDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.dto.response.QuestionSearchHitDto;
+import com.eximia.exams.exception.CustomException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Full-text search over question texts, explanations and option texts, backed by a Lucene index on
+ * local disk.
+ * <p>
+ * Every question and every option is one Lucene document carrying the ids of its question and exam,
+ * so any write reaching {@link ExamChangedEvent} replaces just the documents of the exam or questions
+ * it touched. A search returns question ids that are then hydrated in bulk from MongoDB, so the index
+ * only has to store the text it highlights.
+ * <p>
+ * Writes become searchable after the refresh interval and durable after the commit interval. On
+ * startup an empty index is rebuilt from MongoDB, and otherwise the questions changed since the last
+ * commit are indexed again.
+ * <p>
+ * Each replica keeps its own index, and events only reach the replica that wrote. Exams written
+ * elsewhere are indexed again when their cache invalidation arrives, and the questions changed since
+ * the last catch-up are indexed again periodically in case an invalidation was lost.
+ */
+@Slf4j
+@Service
+public class QuestionTextSearchService {
+
+    private static final String ID = "id";
+    private static final String TYPE = "type";
+    private static final String QUESTION_ID = "question_id";
+    private static final String EXAM_ID = "exam_id";
+    private static final String TEXT = "text";
+    private static final String EXPLANATION = "explanation";
+    private static final String[] HIGHLIGHTED_FIELDS = {TEXT, EXPLANATION};
+
+    private static final String QUESTION_TYPE = "question";
+    private static final String OPTION_TYPE = "option";
+
+    private static final String COMMITTED_AT = "committed_at";
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+
+    private static final int MAX_LIMIT = 100;
+    // Options of the same question collapse into one hit, so fetch more documents than questions
+    private static final int DOCUMENTS_PER_HIT = 4;
+    private static final int REINDEX_CHUNK_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final QuestionQueryService questionQueryService;
+    private final boolean enabled;
+    private final Path indexPath;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private volatile LocalDateTime caughtUpAt;
+
+    public QuestionTextSearchService(MongoTemplate mongoTemplate,
+                                     QuestionQueryService questionQueryService,
+                                     @Value("${app.search.question-index.enabled:false}") boolean enabled,
+                                     @Value("${app.search.question-index.directory:${java.io.tmpdir}/exams/question-index}") Path indexPath) {
+        this.mongoTemplate = mongoTemplate;
+        this.questionQueryService = questionQueryService;
+        this.enabled = enabled;
+        this.indexPath = indexPath;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(indexPath);
+        directory = FSDirectory.open(indexPath);
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(indexWriter, null);
+        log.info("Question text index opened at {}", indexPath);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (indexWriter == null) {
+            return;
+        }
+
+        commit();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (indexWriter != null) {
+            Thread.ofVirtual().name("question-index-recovery").start(this::recover);
+        }
+    }
+
+    /**
+     * Searches questions by their text, their explanation or the text of their options, best match first.
+     */
+    public List<QuestionSearchHitDto> search(String text, TextSearchMode mode, int limit) {
+        if (indexWriter == null) {
+            throw new CustomException("Question text search is not enabled");
+        }
+
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Query query = buildQuery(text, mode);
+
+        Map<String, QuestionSearchHitDto> hitsByQuestionId = new LinkedHashMap<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, boundedLimit * DOCUMENTS_PER_HIT);
+                Map<String, String[]> highlights = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withHandleMultiTermQuery(true)
+                        .build()
+                        .highlightFields(HIGHLIGHTED_FIELDS, query, topDocs);
+
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = 0; i < scoreDocs.length && hitsByQuestionId.size() < boundedLimit; i++) {
+                    Document document = searcher.storedFields().document(scoreDocs[i].doc);
+                    float score = scoreDocs[i].score;
+                    QuestionSearchHitDto hit = hitsByQuestionId.computeIfAbsent(document.get(QUESTION_ID),
+                            questionId -> QuestionSearchHitDto.builder()
+                                    .score(score)
+                                    .highlights(new LinkedHashMap<>())
+                                    .build());
+                    addHighlights(hit, document.get(TYPE), highlights, i);
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Question text search failed", e);
+        }
+
+        List<QuestionResponseDto> questions = questionQueryService.findByIds(new ArrayList<>(hitsByQuestionId.keySet()));
+        log.debug("Text search for '{}' ({}) matched {} questions", text, mode, questions.size());
+
+        return questions.stream()
+                .map(question -> {
+                    QuestionSearchHitDto hit = hitsByQuestionId.get(question.getId());
+                    hit.setQuestion(question);
+                    return hit;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @EventListener
+    @Order(3)
+    public void onExamChanged(ExamChangedEvent event) {
+        if (indexWriter == null) {
+            return;
+        }
+
+        try {
+            if (event.getChangeType() == ExamChangedEvent.ChangeType.DELETED) {
+                indexWriter.deleteDocuments(new Term(EXAM_ID, event.getExamId()));
+            } else if (event.hasSnapshot()) {
+                indexWriter.updateDocuments(new Term(EXAM_ID, event.getExamId()), toDocuments(event.getSnapshot().getQuestions()));
+            } else if (!event.getQuestionIds().isEmpty()) {
+                reindexQuestions(event.getQuestionIds());
+            }
+        } catch (IOException | RuntimeException e) {
+            // The write already succeeded, a stale index entry must not turn it into an error
+            log.error("Could not update question text index for exam {}: {}", event.getExamId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indexes again exams written on other replicas, whose {@link ExamChangedEvent} never reaches this
+     * one. Exams that no longer exist lose their documents.
+     */
+    public void reindexExams(Collection<String> examIds) {
+        if (indexWriter == null || examIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Question> questions = mongoTemplate.find(query(Criteria.where("exam_id").in(examIds)), Question.class);
+            Map<String, List<Question>> questionsByExamId = questions.stream()
+                    .collect(Collectors.groupingBy(Question::getExamId));
+            Map<String, List<Option>> optionsByQuestionId = findOptions(questions);
+
+            for (String examId : examIds) {
+                indexWriter.updateDocuments(new Term(EXAM_ID, examId),
+                        toDocuments(questionsByExamId.getOrDefault(examId, List.of()), optionsByQuestionId));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not update question text index for exams {}: {}", examIds, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indexes again the questions changed since the previous catch-up, wherever they were written.
+     */
+    @Scheduled(fixedDelayString = "${app.search.question-index.catch-up-interval:60000}")
+    public void catchUp() {
+        LocalDateTime since = caughtUpAt;
+        if (indexWriter == null || since == null) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            catchUp(since.minus(CATCH_UP_MARGIN));
+            caughtUpAt = startedAt;
+        } catch (IOException | RuntimeException e) {
+            log.error("Question text index catch-up failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.question-index.refresh-interval:1000}")
+    public void refresh() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.question-index.commit-interval:30000}")
+    public void commit() throws IOException {
+        if (indexWriter == null || !indexWriter.hasUncommittedChanges()) {
+            return;
+        }
+
+        // Taken before committing, so anything written meanwhile is caught up after a crash
+        indexWriter.setLiveCommitData(Map.of(COMMITTED_AT, String.valueOf(System.currentTimeMillis())).entrySet());
+        indexWriter.commit();
+    }
+
+    /**
+     * Drops the index and indexes every question and option again, streaming them in chunks.
+     */
+    public void rebuild() throws IOException {
+        log.info("Rebuilding question text index");
+        indexWriter.deleteAll();
+
+        long indexed = 0;
+        try (Stream<Question> questions = mongoTemplate.stream(
+                new BasicQuery("{}").cursorBatchSize(REINDEX_CHUNK_SIZE), Question.class)) {
+            Iterator<Question> iterator = questions.iterator();
+            List<Question> chunk = new ArrayList<>(REINDEX_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == REINDEX_CHUNK_SIZE || !iterator.hasNext()) {
+                    indexWriter.addDocuments(toDocuments(chunk, findOptions(chunk)));
+                    indexed += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+
+        commit();
+        searcherManager.maybeRefresh();
+        log.info("Question text index rebuilt with {} questions", indexed);
+    }
+
+    private void recover() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            long committedAt = lastCommittedAt();
+            if (indexWriter.getDocStats().numDocs == 0) {
+                rebuild();
+            } else if (committedAt > 0) {
+                catchUp(LocalDateTime.ofInstant(Instant.ofEpochMilli(committedAt), ZoneId.systemDefault())
+                        .minus(CATCH_UP_MARGIN));
+            }
+            caughtUpAt = startedAt;
+        } catch (IOException | RuntimeException e) {
+            log.error("Question text index recovery failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indexes again the questions written since {@code since}, including those whose options changed.
+     * Deletes lost in a crash leave ids that simply no longer hydrate.
+     */
+    private void catchUp(LocalDateTime since) throws IOException {
+        Criteria changedSince = Criteria.where("updated_at").gte(since);
+        Set<String> questionIds = new HashSet<>();
+        mongoTemplate.find(query(changedSince), Question.class)
+                .forEach(question -> questionIds.add(question.getId()));
+        mongoTemplate.find(query(changedSince), Option.class)
+                .forEach(option -> questionIds.add(option.getQuestionId()));
+
+        reindexQuestions(questionIds);
+        log.info("Question text index caught up with {} questions changed since {}", questionIds.size(), since);
+    }
+
+    private void reindexQuestions(Collection<String> questionIds) throws IOException {
+        List<Question> questions = mongoTemplate.find(
+                query(Criteria.where("id").in(questionIds)),
+                Question.class);
+        Map<String, List<Option>> optionsByQuestionId = findOptions(questions);
+        Set<String> missing = new HashSet<>(questionIds);
+
+        for (Question question : questions) {
+            missing.remove(question.getId());
+            indexWriter.updateDocuments(new Term(QUESTION_ID, question.getId()),
+                    toDocuments(List.of(question), optionsByQuestionId));
+        }
+        for (String questionId : missing) {
+            indexWriter.deleteDocuments(new Term(QUESTION_ID, questionId));
+        }
+    }
+
+    private Map<String, List<Option>> findOptions(List<Question> questions) {
+        List<String> questionIds = questions.stream()
+                .map(Question::getId)
+                .collect(Collectors.toList());
+
+        return mongoTemplate.find(
+                        query(Criteria.where("question_id").in(questionIds)),
+                        Option.class).stream()
+                .collect(Collectors.groupingBy(Option::getQuestionId));
+    }
+
+    private long lastCommittedAt() throws IOException {
+        try {
+            String committedAt = SegmentInfos.readLatestCommit(directory).getUserData().get(COMMITTED_AT);
+            return committedAt != null ? Long.parseLong(committedAt) : 0;
+        } catch (IndexNotFoundException e) {
+            return 0;
+        }
+    }
+
+    private List<Document> toDocuments(List<Question> questions, Map<String, List<Option>> optionsByQuestionId) {
+        List<Document> documents = new ArrayList<>();
+        for (Question question : questions) {
+            documents.add(questionDocument(question.getExamId(), question.getId(), question.getQuestionText(),
+                    question.getExplanation()));
+            for (Option option : optionsByQuestionId.getOrDefault(question.getId(), List.of())) {
+                documents.add(optionDocument(question.getExamId(), question.getId(), option.getId(),
+                        option.getOptionText()));
+            }
+        }
+        return documents;
+    }
+
+    private List<Document> toDocuments(List<QuestionResponseDto> questions) {
+        List<Document> documents = new ArrayList<>();
+        if (questions == null) {
+            return documents;
+        }
+
+        for (QuestionResponseDto question : questions) {
+            documents.add(questionDocument(question.getExamId(), question.getId(), question.getQuestionText(),
+                    question.getExplanation()));
+            if (question.getOptions() != null) {
+                for (OptionResponseDto option : question.getOptions()) {
+                    documents.add(optionDocument(question.getExamId(), question.getId(), option.getId(),
+                            option.getOptionText()));
+                }
+            }
+        }
+        return documents;
+    }
+
+    private static Document questionDocument(String examId, String questionId, String text, String explanation) {
+        Document document = baseDocument(examId, questionId, questionId, QUESTION_TYPE, text);
+        if (explanation != null) {
+            document.add(new TextField(EXPLANATION, explanation, Field.Store.YES));
+        }
+        return document;
+    }
+
+    private static Document optionDocument(String examId, String questionId, String optionId, String text) {
+        return baseDocument(examId, questionId, optionId, OPTION_TYPE, text);
+    }
+
+    private static Document baseDocument(String examId, String questionId, String id, String type, String text) {
+        Document document = new Document();
+        document.add(new StringField(ID, id, Field.Store.YES));
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new StringField(QUESTION_ID, questionId, Field.Store.YES));
+        if (examId != null) {
+            document.add(new StringField(EXAM_ID, examId, Field.Store.NO));
+        }
+        if (text != null) {
+            document.add(new TextField(TEXT, text, Field.Store.YES));
+        }
+        return document;
+    }
+
+    private static void addHighlights(QuestionSearchHitDto hit, String type, Map<String, String[]> highlights, int index) {
+        String text = highlights.get(TEXT)[index];
+        if (text != null) {
+            hit.getHighlights().putIfAbsent(QUESTION_TYPE.equals(type) ? "questionText" : "optionText", text);
+        }
+        String explanation = highlights.get(EXPLANATION)[index];
+        if (explanation != null) {
+            hit.getHighlights().putIfAbsent("explanation", explanation);
+        }
+    }
+
+    /**
+     * Builds one query per indexed field from the analyzed words of {@code text}, a match in the
+     * question or option text weighing more than one in the explanation.
+     */
+    private Query buildQuery(String text, TextSearchMode mode) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new BoostQuery(fieldQuery(TEXT, analyze(TEXT, text), mode), 2f), BooleanClause.Occur.SHOULD);
+        query.add(fieldQuery(EXPLANATION, analyze(EXPLANATION, text), mode), BooleanClause.Occur.SHOULD);
+        return query.build();
+    }
+
+    private static Query fieldQuery(String field, List<String> terms, TextSearchMode mode) {
+        if (mode == TextSearchMode.PHRASE) {
+            return new PhraseQuery(field, terms.toArray(new String[0]));
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = new Term(field, terms.get(i));
+            switch (mode) {
+                case MATCH -> query.add(new TermQuery(term), BooleanClause.Occur.SHOULD);
+                case FUZZY -> query.add(new FuzzyQuery(term, maxEdits(term.text())), BooleanClause.Occur.MUST);
+                case PREFIX -> query.add(i == terms.size() - 1 ? new PrefixQuery(term) : new TermQuery(term),
+                        BooleanClause.Occur.MUST);
+                default -> throw new IllegalStateException("Unexpected mode: " + mode);
+            }
+        }
+        return query.build();
+    }
+
+    /**
+     * Short words tolerate fewer typos, otherwise they would match almost anything.
+     */
+    private static int maxEdits(String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    private List<String> analyze(String field, String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (terms.isEmpty()) {
+            throw new CustomException("Search text must contain at least one word");
+        }
+        return terms;
+    }
+}
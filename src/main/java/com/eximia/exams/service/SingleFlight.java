@@ -0,0 +1,91 @@
+package com.eximia.exams.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load and every caller arriving
+ * while it is in flight waits for its result instead of running its own.
+ * <p>
+ * Waiting is bounded by {@code app.single-flight.max-wait}; a caller that runs out of patience loads on
+ * its own. Failures are shared the same way as results, so a missing exam is looked up once.
+ */
+@Slf4j
+@Component
+public class SingleFlight {
+
+    private static final String LOADS_METRIC = "exams.single-flight.loads";
+    private static final String COALESCED_METRIC = "exams.single-flight.coalesced";
+    private static final String TIMEOUTS_METRIC = "exams.single-flight.timeouts";
+
+    private final MeterRegistry meterRegistry;
+    private final long maxWaitMillis;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${app.single-flight.max-wait:5s}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMillis = maxWait.toMillis();
+    }
+
+    /**
+     * Returns the result of {@code loader}, shared with every concurrent call for the same
+     * {@code operation} and {@code key}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String key, Supplier<T> loader) {
+        String flightKey = operation + ":" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+
+        if (existing == null) {
+            meterRegistry.counter(LOADS_METRIC, "operation", operation).increment();
+            try {
+                T result = loader.get();
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        meterRegistry.counter(COALESCED_METRIC, "operation", operation).increment();
+        try {
+            return (T) existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter(TIMEOUTS_METRIC, "operation", operation).increment();
+            log.warn("Gave up waiting {} ms for in-flight {} of {}, loading it again", maxWaitMillis, operation, key);
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation + " of " + key, e);
+        }
+    }
+
+    /**
+     * Detaches the in-flight load of {@code key}, if any, so callers arriving after a write start a fresh
+     * load instead of joining one that may have read the previous state.
+     */
+    public void forget(String operation, String key) {
+        inFlight.remove(operation + ":" + key);
+    }
+}
@@ -0,0 +1,75 @@
+package com.eximia.exams.service;
+
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Builds the filters of the criteria query services around a {@code $text} search, so free-text
+ * criteria are answered by the text indexes declared in {@link IndexRegistry} instead of regex scans.
+ * <p>
+ * The search terms match any word, each field criterion is added as a phrase that must appear, and
+ * results are ordered by relevance unless the caller asks for another sort. Words are matched by stem,
+ * not as substrings. {@code $text} fails without a text index, so those indexes are required ones that
+ * {@link IndexReconciler} builds before the application reports ready.
+ */
+public final class TextSearch {
+
+    static final String TEXT = "$text";
+    private static final String SCORE_FIELD = "score";
+    private static final Document TEXT_SCORE = new Document("$meta", "textScore");
+
+    private TextSearch() {
+    }
+
+    /**
+     * The value of a {@code $text} filter for {@code terms} and {@code phrases}, or {@code null} when
+     * there is nothing to search for.
+     */
+    public static Document textFilter(String terms, List<String> phrases) {
+        TextCriteria textCriteria = null;
+        if (StringUtils.hasText(terms)) {
+            textCriteria = TextCriteria.forDefaultLanguage().matching(terms);
+        }
+        for (String phrase : phrases) {
+            // A quote inside the phrase would end it early
+            String sanitized = phrase.replace("\"", " ").trim();
+            if (!sanitized.isEmpty()) {
+                textCriteria = (textCriteria != null ? textCriteria : TextCriteria.forDefaultLanguage())
+                        .matchingPhrase(sanitized);
+            }
+        }
+
+        return textCriteria != null ? (Document) textCriteria.getCriteriaObject().get(TEXT) : null;
+    }
+
+    public static boolean isTextSearch(Document queryObject) {
+        return queryObject != null && queryObject.containsKey(TEXT);
+    }
+
+    /**
+     * Applies {@code pageable} to {@code query}, ordering a text search by relevance when no sort was requested.
+     */
+    public static Query withPageable(Query query, Pageable pageable) {
+        if (pageable.getSort().isSorted() || !isTextSearch(query.getQueryObject())) {
+            return query.with(pageable);
+        }
+
+        BasicQuery scored = new BasicQuery(query);
+        scored.setSortObject(new Document(SCORE_FIELD, TEXT_SCORE));
+        return scored.with(pageable);
+    }
+
+    /**
+     * {@code $sort} stage ordering the documents matched by a {@code $text} stage by relevance.
+     */
+    public static AggregationOperation sortByScore() {
+        return context -> new Document("$sort", new Document(SCORE_FIELD, TEXT_SCORE));
+    }
+}
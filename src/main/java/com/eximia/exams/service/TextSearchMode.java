@@ -0,0 +1,27 @@
+package com.eximia.exams.service;
+
+/**
+ * How the words of a full-text search are matched against the question index.
+ */
+public enum TextSearchMode {
+
+    /**
+     * Any of the words, ranked by relevance.
+     */
+    MATCH,
+
+    /**
+     * All the words, the last one as a prefix, for search-as-you-type.
+     */
+    PREFIX,
+
+    /**
+     * All the words, each allowing a few typos.
+     */
+    FUZZY,
+
+    /**
+     * The words next to each other, in order.
+     */
+    PHRASE
+}
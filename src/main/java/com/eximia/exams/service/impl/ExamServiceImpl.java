@@ -1,24 +1,38 @@
 package com.eximia.exams.service.impl;
 
+import com.eximia.exams.config.CacheConfig;
 import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.events.ExamChangedEvent;
 import com.eximia.exams.dto.request.ExamRequestDto;
 import com.eximia.exams.dto.request.QuestionRequestDto;
 import com.eximia.exams.dto.response.ExamResponseDto;
-import com.eximia.exams.dto.response.QuestionResponseDto;
 import com.eximia.exams.exception.ExamNotFoundException;
-import com.eximia.exams.exception.CustomException;
 import com.eximia.exams.mapper.ExamMapper;
 import com.eximia.exams.repository.ExamRepository;
+import com.eximia.exams.service.ExamCacheInvalidator;
+import com.eximia.exams.service.ExamCreationPipeline;
 import com.eximia.exams.service.ExamService;
+import com.eximia.exams.service.ExamTreeDiff;
+import com.eximia.exams.service.ExamVersionService;
+import com.eximia.exams.service.ExamViewService;
+import com.eximia.exams.service.IdempotencyService;
 import com.eximia.exams.service.PointsDistributionService;
 import com.eximia.exams.service.QuestionService;
+import com.eximia.exams.service.QuestionValidationFactory;
+import com.eximia.exams.service.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,53 +42,65 @@ public class ExamServiceImpl implements ExamService {
     private final ExamRepository examRepository;
     private final ExamMapper examMapper;
     private final QuestionService questionService;
+    private final ExamCreationPipeline examCreationPipeline;
+    private final ExamTreeDiff examTreeDiff;
+    private final ExamViewService examViewService;
+    private final ExamVersionService examVersionService;
+    private final IdempotencyService idempotencyService;
+    private final QuestionValidationFactory questionValidationFactory;
     private final PointsDistributionService pointsDistributionService;
-
-    private static final double MAX_POINTS = 100.0;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final ExamCacheInvalidator examCacheInvalidator;
+    // This service through its proxy, so calls from within still go through the cache
+    private final ObjectProvider<ExamService> proxy;
 
     @Override
     @Transactional
     public ExamResponseDto createExam(ExamRequestDto examRequestDto) {
         log.info("Creating exam with title: {}", examRequestDto.getTitle());
 
-        // Distribute question points
-        pointsDistributionService.distributeExamPoints(examRequestDto);
-
-        Exam exam = examMapper.toEntity(examRequestDto);
-        exam.setQuestionIds(new ArrayList<>());
-        exam.setTotalPoints(MAX_POINTS);
-
-        Exam savedExam = examRepository.save(exam);
+        // Validate, distribute question points and assign ids before writing anything
+        ExamCreationPipeline.PreparedExam preparedExam = examCreationPipeline.prepare(examRequestDto);
 
-        List<String> questionIds = new ArrayList<>();
-
-        for (QuestionRequestDto questionRequestDto : examRequestDto.getQuestions()) {
-            QuestionResponseDto createdQuestion = questionService.createQuestion(savedExam.getId(), questionRequestDto);
-            questionIds.add(createdQuestion.getId());
-        }
+        examCreationPipeline.persist(List.of(preparedExam));
 
-        savedExam.setQuestionIds(questionIds);
-        savedExam = examRepository.save(savedExam);
+        log.info("Exam created successfully with ID: {}", preparedExam.getExam().getId());
 
-        log.info("Exam created successfully with ID: {}", savedExam.getId());
-
-        ExamResponseDto responseDto = examMapper.toResponseDto(savedExam);
-        responseDto.setQuestions(questionService.getQuestionsByExamId(savedExam.getId()));
+        ExamResponseDto responseDto = examCreationPipeline.toResponseDto(preparedExam);
+        eventPublisher.publishEvent(ExamChangedEvent.created(responseDto));
 
         return responseDto;
     }
 
+    @Override
+    public ExamResponseDto createExam(ExamRequestDto examRequestDto, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey,
+                () -> proxy.getObject().createExam(examRequestDto),
+                id -> proxy.getObject().getExamById(id));
+    }
+
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EXAMS_CACHE, key = "#id")
     public ExamResponseDto getExamById(String id) {
         log.info("Fetching exam with ID: {}", id);
 
-        Exam exam = findExamByIdOrThrow(id);
-        ExamResponseDto responseDto = examMapper.toResponseDto(exam);
+        // Cache misses for the same exam share one hydration
+        return singleFlight.execute(CacheConfig.EXAM_LOADS, id, () -> loadExam(id));
+    }
 
-        responseDto.setQuestions(questionService.getQuestionsByExamId(id));
+    @Override
+    public ExamResponseDto getExamById(String id, long currentVersion) {
+        ExamResponseDto responseDto = proxy.getObject().getExamById(id);
+        if (responseDto.getVersion() != null && responseDto.getVersion() >= currentVersion) {
+            return responseDto;
+        }
 
-        return responseDto;
+        log.debug("Cached exam with ID {} is older than version {}, reloading it", id, currentVersion);
+        examCacheInvalidator.evict(id);
+        singleFlight.forget(CacheConfig.EXAM_LOADS, id);
+        return proxy.getObject().getExamById(id);
     }
 
     @Override
@@ -86,27 +112,38 @@ public class ExamServiceImpl implements ExamService {
 
         examMapper.updateEntity(existingExam, examRequestDto);
 
-        if (examRequestDto.getQuestions() != null && !examRequestDto.getQuestions().isEmpty()) {
-            questionService.deleteQuestionsByExamId(id);
+        if (examRequestDto.getQuestions() == null || examRequestDto.getQuestions().isEmpty()) {
+            Exam updatedExam = examRepository.save(existingExam);
+            log.info("Exam updated successfully with ID: {}", updatedExam.getId());
 
-            List<String> questionIds = new ArrayList<>();
-            double totalPoints = 0.0;
+            ExamResponseDto responseDto = examMapper.toResponseDto(updatedExam);
+            responseDto.setQuestions(questionService.getQuestionsByExamId(updatedExam.getId()));
+            eventPublisher.publishEvent(ExamChangedEvent.updated(responseDto, Set.of()));
 
-            for (var questionDto : examRequestDto.getQuestions()) {
-                QuestionResponseDto createdQuestion = questionService.createQuestion(id, questionDto);
-                questionIds.add(createdQuestion.getId());
-                totalPoints += createdQuestion.getPoints();
-            }
+            return responseDto;
+        }
 
-            existingExam.setQuestionIds(questionIds);
-            existingExam.setTotalPoints(totalPoints);
+        // Validate and distribute points of every question before touching the stored tree
+        for (QuestionRequestDto questionDto : examRequestDto.getQuestions()) {
+            questionValidationFactory.forType(questionDto.getQuestionType()).validate(questionDto);
+            pointsDistributionService.distributeQuestionPoints(questionDto);
         }
 
+        ExamTreeDiff.Result diff = examTreeDiff.apply(id, examRequestDto.getQuestions());
+
+        existingExam.setQuestionIds(diff.getQuestions().stream()
+                .map(Question::getId)
+                .collect(Collectors.toList()));
+        existingExam.setTotalPoints(diff.getQuestions().stream()
+                .mapToDouble(Question::getPoints)
+                .sum());
+
         Exam updatedExam = examRepository.save(existingExam);
         log.info("Exam updated successfully with ID: {}", updatedExam.getId());
 
-        ExamResponseDto responseDto = examMapper.toResponseDto(updatedExam);
-        responseDto.setQuestions(questionService.getQuestionsByExamId(updatedExam.getId()));
+        ExamResponseDto responseDto = examCreationPipeline.toResponseDto(
+                new ExamCreationPipeline.PreparedExam(updatedExam, diff.getQuestions(), diff.getOptions()));
+        eventPublisher.publishEvent(ExamChangedEvent.updated(responseDto, diff.getTouchedQuestionIds()));
 
         return responseDto;
     }
@@ -123,19 +160,32 @@ public class ExamServiceImpl implements ExamService {
         questionService.deleteQuestionsByExamId(id);
 
         examRepository.deleteById(id);
+        eventPublisher.publishEvent(ExamChangedEvent.deleted(id));
         log.info("Exam deleted successfully with ID: {}", id);
     }
 
+    private ExamResponseDto loadExam(String id) {
+        // Read before the exam, so the tree is never older than the version it is tagged with
+        Optional<Long> version = examVersionService.findVersion(id);
+
+        Optional<ExamResponseDto> view = examViewService.findById(id);
+        if (view.isPresent()) {
+            view.get().setVersion(version.orElse(null));
+            return view.get();
+        }
+
+        Exam exam = findExamByIdOrThrow(id);
+        ExamResponseDto responseDto = examMapper.toResponseDto(exam);
+
+        responseDto.setQuestions(questionService.getQuestionsByExamId(id));
+        examViewService.backfill(responseDto);
+        responseDto.setVersion(version.orElse(null));
+
+        return responseDto;
+    }
+
     private Exam findExamByIdOrThrow(String id) {
         return examRepository.findById(id)
                 .orElseThrow(() -> new ExamNotFoundException("Exam not found with ID: " + id));
     }
-
-    private void validateExamDoesNotExist(String title, String createdBy) {
-        if (examRepository.existsByTitleAndCreatedBy(title, createdBy)) {
-            throw new CustomException(
-                    String.format("Exam with title '%s' already exists for creator '%s'", title, createdBy)
-            );
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.eximia.exams.service.impl;
+
+import com.eximia.exams.domain.entities.ExamCreationTicket;
+import com.eximia.exams.domain.enums.TicketStatus;
+import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.response.ExamCreationTicketDto;
+import com.eximia.exams.exception.ExamNotFoundException;
+import com.eximia.exams.mapper.ExamCreationTicketMapper;
+import com.eximia.exams.mesagging.publisher.ExamMessagePublisher;
+import com.eximia.exams.service.ExamCreationPipeline;
+import com.eximia.exams.service.ExamSubmissionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExamSubmissionServiceImpl implements ExamSubmissionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ExamCreationPipeline examCreationPipeline;
+    private final ExamMessagePublisher examMessagePublisher;
+    private final ExamCreationTicketMapper ticketMapper;
+
+    @Override
+    public ExamCreationTicketDto submitExam(ExamRequestDto examRequestDto) {
+        log.info("Submitting exam with title: {}", examRequestDto.getTitle());
+
+        // Reject invalid exams up front so only creatable exams are queued
+        examCreationPipeline.validate(examRequestDto);
+
+        LocalDateTime now = LocalDateTime.now();
+        ExamCreationTicket ticket = mongoTemplate.insert(ExamCreationTicket.builder()
+                .id(new ObjectId().toHexString())
+                .status(TicketStatus.PENDING)
+                .title(examRequestDto.getTitle())
+                .submittedAt(now)
+                .updatedAt(now)
+                .build());
+
+        try {
+            examMessagePublisher.publishExamCreation(examRequestDto, ticket.getId());
+        } catch (RuntimeException e) {
+            markFailed(ticket.getId(), "Failed to queue exam for creation");
+            throw e;
+        }
+
+        log.info("Exam submitted with ticket ID: {}", ticket.getId());
+        return ticketMapper.toResponseDto(ticket);
+    }
+
+    @Override
+    public ExamCreationTicketDto getTicket(String ticketId) {
+        return Optional.ofNullable(mongoTemplate.findById(ticketId, ExamCreationTicket.class))
+                .map(ticketMapper::toResponseDto)
+                .orElseThrow(() -> new ExamNotFoundException("Exam creation ticket not found with ID: " + ticketId));
+    }
+
+    @Override
+    public void markCreated(String ticketId, String examId) {
+        updateTicket(ticketId, new Update()
+                .set("status", TicketStatus.CREATED)
+                .set("exam_id", examId)
+                .unset("error"));
+    }
+
+    @Override
+    public void markCreated(Map<String, String> examIdsByTicketId) {
+        if (examIdsByTicketId.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExamCreationTicket.class);
+        examIdsByTicketId.forEach((ticketId, examId) -> bulkOps.updateOne(
+                Query.query(Criteria.where("id").is(ticketId)),
+                new Update()
+                        .set("status", TicketStatus.CREATED)
+                        .set("exam_id", examId)
+                        .set("updated_at", now)
+                        .unset("error")));
+        bulkOps.execute();
+    }
+
+    @Override
+    public void recordError(String ticketId, String error) {
+        updateTicket(ticketId, new Update().set("error", error));
+    }
+
+    @Override
+    public void markFailed(String ticketId, String error) {
+        Update update = new Update().set("status", TicketStatus.FAILED);
+        if (error != null) {
+            update.set("error", error);
+        }
+        updateTicket(ticketId, update);
+    }
+
+    private void updateTicket(String ticketId, Update update) {
+        if (ticketId == null) {
+            return;
+        }
+
+        update.set("updated_at", LocalDateTime.now());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(ticketId)), update, ExamCreationTicket.class);
+    }
+}
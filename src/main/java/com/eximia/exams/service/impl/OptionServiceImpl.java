@@ -1,6 +1,8 @@
 package com.eximia.exams.service.impl;
 
 import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.events.ExamChangedEvent;
 import com.eximia.exams.dto.request.OptionRequestDto;
 import com.eximia.exams.dto.response.OptionResponseDto;
 import com.eximia.exams.exception.ExamNotFoundException;
@@ -8,16 +10,23 @@ import com.eximia.exams.exception.CustomException;
 import com.eximia.exams.mapper.OptionMapper;
 import com.eximia.exams.repository.OptionRepository;
 import com.eximia.exams.repository.QuestionRepository;
+import com.eximia.exams.service.OptionListCache;
 import com.eximia.exams.service.OptionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,16 +37,42 @@ public class OptionServiceImpl implements OptionService {
     private final OptionRepository optionRepository;
     private final QuestionRepository questionRepository;
     private final OptionMapper optionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptionListCache optionListCache;
 
     @Override
     @Transactional(readOnly = true)
     public List<OptionResponseDto> getOptionsByQuestionId(String questionId) {
-        log.info("Fetching options for question ID: {}", questionId);
+        log.debug("Fetching options for question ID: {}", questionId);
 
-        List<Option> options = optionRepository.findByQuestionIdOrderByOrderIndexAsc(questionId);
-        return options.stream()
+        return optionListCache.get(questionId, key -> optionRepository.findByQuestionIdOrderByOrderIndexAsc(key).stream()
                 .map(optionMapper::toResponseDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<OptionResponseDto>> getOptionsByQuestionIds(Collection<String> questionIds) {
+        log.debug("Fetching options for {} questions", questionIds.size());
+
+        if (questionIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        return optionListCache.getAll(questionIds, this::findOptionsByQuestionIds);
+    }
+
+    private Map<String, List<OptionResponseDto>> findOptionsByQuestionIds(Collection<String> questionIds) {
+        Map<String, List<OptionResponseDto>> optionsByQuestionId = new LinkedHashMap<>();
+
+        // Single $in query, already grouped by question and ordered by order_index
+        List<Option> options = optionRepository.findByQuestionIdInOrderByQuestionIdAscOrderIndexAsc(questionIds);
+        for (Option option : options) {
+            optionsByQuestionId.computeIfAbsent(option.getQuestionId(), key -> new ArrayList<>())
+                    .add(optionMapper.toResponseDto(option));
+        }
+
+        return optionsByQuestionId;
     }
 
     @Override
@@ -51,6 +86,8 @@ public class OptionServiceImpl implements OptionService {
         existingOption.setUpdatedAt(LocalDateTime.now());
 
         Option updatedOption = optionRepository.save(existingOption);
+        optionListCache.evict(updatedOption.getQuestionId());
+        publishExamChanged(updatedOption.getQuestionId());
 
         log.info("Option updated successfully with ID: {}", updatedOption.getId());
         return optionMapper.toResponseDto(updatedOption);
@@ -61,11 +98,12 @@ public class OptionServiceImpl implements OptionService {
     public void deleteOption(String id) {
         log.info("Deleting option with ID: {}", id);
 
-        if (!optionRepository.existsById(id)) {
-            throw new ExamNotFoundException("Option not found with ID: " + id);
-        }
+        Option option = findOptionByIdOrThrow(id);
 
         optionRepository.deleteById(id);
+        questionRepository.removeOptionId(option.getQuestionId(), id);
+        optionListCache.evict(option.getQuestionId());
+        publishExamChanged(option.getQuestionId());
         log.info("Option deleted successfully with ID: {}", id);
     }
 
@@ -75,18 +113,31 @@ public class OptionServiceImpl implements OptionService {
         log.info("Deleting all options for question ID: {}", questionId);
 
         optionRepository.deleteByQuestionId(questionId);
+        questionRepository.clearOptionIds(questionId);
+        optionListCache.evict(questionId);
+        publishExamChanged(questionId);
         log.info("All options deleted successfully for question ID: {}", questionId);
     }
 
+    /**
+     * Bulk removal used when questions themselves are deleted; the caller publishes the exam change.
+     */
     @Override
     @Transactional
     public void deleteOptionsByQuestionIds(List<String> questionIds) {
         log.info("Deleting options for {} questions", questionIds.size());
 
         optionRepository.deleteByQuestionIdIn(questionIds);
+        optionListCache.evictAll(questionIds);
         log.info("Options deleted successfully for {} questions", questionIds.size());
     }
 
+    private void publishExamChanged(String questionId) {
+        questionRepository.findById(questionId)
+                .ifPresent(question -> eventPublisher.publishEvent(
+                        ExamChangedEvent.updated(question.getExamId(), Set.of(questionId))));
+    }
+
     private Option findOptionByIdOrThrow(String id) {
         return optionRepository.findById(id)
                 .orElseThrow(() -> new ExamNotFoundException("Option not found with ID: " + id));
@@ -96,14 +147,16 @@ public class OptionServiceImpl implements OptionService {
         log.info("Creating option for question ID: {}", questionId);
 
         // Validate question exists
-        if (!questionRepository.existsById(questionId)) {
-            throw new ExamNotFoundException("Question not found with ID: " + questionId);
-        }
+        Question question = questionRepository.findById(questionId)
+                .orElseThrow(() -> new ExamNotFoundException("Question not found with ID: " + questionId));
 
         Option option = optionMapper.toEntity(optionRequestDto);
         option.setQuestionId(questionId);
 
         Option savedOption = optionRepository.save(option);
+        questionRepository.addOptionId(questionId, savedOption.getId());
+        optionListCache.evict(questionId);
+        eventPublisher.publishEvent(ExamChangedEvent.updated(question.getExamId(), Set.of(questionId)));
 
         log.info("Option created successfully with ID: {}", savedOption.getId());
         return optionMapper.toResponseDto(savedOption);
@@ -1,7 +1,10 @@
 package com.eximia.exams.service.impl;
 
+import com.eximia.exams.config.CacheConfig;
 import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.events.ExamChangedEvent;
 import com.eximia.exams.dto.request.QuestionRequestDto;
+import com.eximia.exams.dto.response.OptionResponseDto;
 import com.eximia.exams.dto.response.QuestionResponseDto;
 import com.eximia.exams.exception.ExamNotFoundException;
 import com.eximia.exams.mapper.QuestionMapper;
@@ -11,11 +14,19 @@ import com.eximia.exams.service.OptionService;
 import com.eximia.exams.service.PointsDistributionService;
 import com.eximia.exams.service.QuestionService;
 import com.eximia.exams.service.QuestionValidationFactory;
+import com.eximia.exams.service.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,6 +40,8 @@ public class QuestionServiceImpl implements QuestionService {
     private final OptionService optionService;
     private final QuestionValidationFactory questionValidationFactory;
     private final PointsDistributionService pointsDistributionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
 
     @Override
     @Transactional
@@ -48,6 +61,7 @@ public class QuestionServiceImpl implements QuestionService {
         question.setExamId(examId);
         Question savedQuestion = questionRepository.save(question);
         String questionId = savedQuestion.getId();
+        examRepository.addQuestionId(examId, questionId);
 
         List<String> optionIds = questionRequestDto.getOptions().stream()
                 .map(optionDto -> optionService.createOption(questionId, optionDto).getId())
@@ -55,6 +69,7 @@ public class QuestionServiceImpl implements QuestionService {
 
         savedQuestion.setOptionIds(optionIds);
         savedQuestion = questionRepository.save(savedQuestion);
+        eventPublisher.publishEvent(ExamChangedEvent.updated(examId, Set.of(questionId)));
 
         log.info("Question created successfully with ID: {}", savedQuestion.getId());
         QuestionResponseDto questionResponseDto = questionMapper.toResponseDto(savedQuestion);
@@ -80,11 +95,27 @@ public class QuestionServiceImpl implements QuestionService {
     public List<QuestionResponseDto> getQuestionsByExamId(String examId) {
         log.info("Fetching questions for exam ID: {}", examId);
 
-        List<Question> questions = questionRepository.findByExamIdOrderByOrderIndexAsc(examId);
-        return questions.stream()
-                .map(questionMapper::toResponseDto)
-                .peek(questionResponseDto -> questionResponseDto.setOptions(optionService.getOptionsByQuestionId(questionResponseDto.getId())))
-                .collect(Collectors.toList());
+        return singleFlight.execute(CacheConfig.EXAM_QUESTION_LOADS, examId,
+                () -> toResponseDtosWithOptions(questionRepository.findByExamIdOrderByOrderIndexAsc(examId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<QuestionResponseDto>> getQuestionsByExamIds(Collection<String> examIds) {
+        log.debug("Fetching questions for {} exams", examIds.size());
+
+        Map<String, List<QuestionResponseDto>> questionsByExamId = new LinkedHashMap<>();
+        if (examIds.isEmpty()) {
+            return questionsByExamId;
+        }
+
+        List<Question> questions = questionRepository.findByExamIdInOrderByExamIdAscOrderIndexAsc(examIds);
+        for (QuestionResponseDto questionResponseDto : toResponseDtosWithOptions(questions)) {
+            questionsByExamId.computeIfAbsent(questionResponseDto.getExamId(), key -> new ArrayList<>())
+                    .add(questionResponseDto);
+        }
+
+        return questionsByExamId;
     }
 
     @Override
@@ -98,6 +129,7 @@ public class QuestionServiceImpl implements QuestionService {
         questionMapper.updateEntity(existingQuestion, questionRequestDto);
 
         Question updatedQuestion = questionRepository.save(existingQuestion);
+        eventPublisher.publishEvent(ExamChangedEvent.updated(updatedQuestion.getExamId(), Set.of(id)));
 
         log.info("Question updated successfully with ID: {}", updatedQuestion.getId());
         return questionMapper.toResponseDto(updatedQuestion);
@@ -108,11 +140,13 @@ public class QuestionServiceImpl implements QuestionService {
     public void deleteQuestion(String id) {
         log.info("Deleting question with ID: {}", id);
 
-        findQuestionByIdOrThrow(id);
+        Question question = findQuestionByIdOrThrow(id);
 
         optionService.deleteOptionsByQuestionId(id);
 
         questionRepository.deleteById(id);
+        examRepository.removeQuestionId(question.getExamId(), id);
+        eventPublisher.publishEvent(ExamChangedEvent.updated(question.getExamId(), Set.of(id)));
 
         log.info("Question deleted successfully with ID: {}", id);
     }
@@ -130,10 +164,29 @@ public class QuestionServiceImpl implements QuestionService {
         optionService.deleteOptionsByQuestionIds(questionIds);
 
         questionRepository.deleteByExamId(examId);
+        eventPublisher.publishEvent(ExamChangedEvent.updated(examId, questionIds));
 
         log.info("All questions deleted successfully for exam ID: {}", examId);
     }
 
+    /**
+     * Maps the questions and hydrates their options with one query for all of them.
+     */
+    private List<QuestionResponseDto> toResponseDtosWithOptions(List<Question> questions) {
+        List<String> questionIds = questions.stream()
+                .map(Question::getId)
+                .collect(Collectors.toList());
+        Map<String, List<OptionResponseDto>> optionsByQuestionId = optionService.getOptionsByQuestionIds(questionIds);
+
+        return questions.stream()
+                .map(question -> {
+                    QuestionResponseDto questionResponseDto = questionMapper.toResponseDto(question);
+                    questionResponseDto.setOptions(optionsByQuestionId.getOrDefault(question.getId(), new ArrayList<>()));
+                    return questionResponseDto;
+                })
+                .collect(Collectors.toList());
+    }
+
     private Question findQuestionByIdOrThrow(String id) {
         return questionRepository.findById(id)
                 .orElseThrow(() -> new ExamNotFoundException("Question not found with ID: " + id));
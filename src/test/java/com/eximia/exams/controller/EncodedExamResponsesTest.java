@@ -0,0 +1,21 @@
+package com.eximia.exams.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedExamResponsesTest {
+
+    @Test
+    void shouldHonourTheQualityOfGzipInAcceptEncoding() {
+        assertThat(EncodedExamResponses.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(EncodedExamResponses.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(EncodedExamResponses.acceptsGzip("*")).isTrue();
+
+        assertThat(EncodedExamResponses.acceptsGzip(null)).isFalse();
+        assertThat(EncodedExamResponses.acceptsGzip("identity")).isFalse();
+        assertThat(EncodedExamResponses.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(EncodedExamResponses.acceptsGzip("br, gzip; q=0.0, *")).isFalse();
+        assertThat(EncodedExamResponses.acceptsGzip("*;q=0")).isFalse();
+    }
+}
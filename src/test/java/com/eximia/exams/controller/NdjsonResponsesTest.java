@@ -0,0 +1,32 @@
+package com.eximia.exams.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonResponsesTest {
+
+    @Test
+    void shouldWriteOneObjectPerLineAcrossChunks() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.stream(new ObjectMapper(), consumer -> {
+            consumer.accept(List.of(Map.of("id", "1"), Map.of("id", "2")));
+            consumer.accept(List.of(Map.of("id", "3")));
+        });
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(outputStream.toString(StandardCharsets.UTF_8).split("\n"))
+                .containsExactly("{\"id\":\"1\"}", "{\"id\":\"2\"}", "{\"id\":\"3\"}");
+    }
+}
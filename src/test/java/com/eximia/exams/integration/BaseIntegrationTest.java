@@ -1,7 +1,10 @@
 package com.eximia.exams.integration;
 
 import com.eximia.exams.config.TestConfig;
+import com.eximia.exams.service.IndexReconciler;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,11 +25,20 @@ public abstract class BaseIntegrationTest {
     static MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:6.0"))
             .withExposedPorts(27017);
 
+    @Autowired
+    private IndexReconciler indexReconciler;
+
     @BeforeAll
     static void setUp() {
         mongoDBContainer.start();
     }
 
+    @BeforeEach
+    void ensureIndexes() {
+        // Text search needs its indexes, which are otherwise only built on startup in prod
+        indexReconciler.reconcile();
+    }
+
     @DynamicPropertySource
     static void setProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
@@ -16,10 +16,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -109,6 +111,42 @@ class ExamControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.questions", hasSize(2)));
     }
 
+    @Test
+    void shouldAnswerNotModifiedUntilTheExamChanges() throws Exception {
+        ExamRequestDto examRequest = createValidExamRequest();
+        String response = mockMvc.perform(post("/exams")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(examRequest)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        ExamResponseDto createdExam = objectMapper.readValue(response, ExamResponseDto.class);
+
+        String eTag = mockMvc.perform(get("/exams/{id}", createdExam.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/exams/{id}", createdExam.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        examRequest.setTitle("Updated Title");
+        mockMvc.perform(put("/exams/{id}", createdExam.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(examRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/exams/{id}", createdExam.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$.title").value("Updated Title"));
+    }
+
     @Test
     void shouldReturnNotFoundWhenGetExamByInvalidId() throws Exception {
         mockMvc.perform(get("/exams/{id}", "507f1f77bcf86cd799439011"))
@@ -145,6 +183,25 @@ class ExamControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.content", hasSize(2)));
     }
 
+    @Test
+    void shouldGetExamSummariesWithoutQuestions() throws Exception {
+        mockMvc.perform(post("/exams")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidExamRequest())))
+                .andExpect(status().isCreated());
+        createExam("Math Algebra", "Mathematics", "Intermediate", "john.doe");
+
+        mockMvc.perform(get("/exams")
+                        .param("view", "summary")
+                        .param("subject", "Programming"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title").value("Sample Exam"))
+                .andExpect(jsonPath("$.content[0].questionCount").value(2))
+                .andExpect(jsonPath("$.content[0].totalPoints").value(100.0))
+                .andExpect(jsonPath("$.content[0].questions").doesNotExist());
+    }
+
     @Test
     void shouldSearchExamsByText() throws Exception {
         // Create exams
@@ -158,6 +215,49 @@ class ExamControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    void shouldStreamExamsAsNdjson() throws Exception {
+        createExam("Java Advanced Programming", "Programming", "Advanced", "user1");
+        createExam("Basic Python Course", "Programming", "Beginner", "user2");
+        createExam("Calculus Exam", "Mathematics", "Advanced", "user3");
+
+        MvcResult result = mockMvc.perform(get("/exams/search")
+                        .param("subject", "Programming")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        for (String line : lines) {
+            ExamResponseDto exam = objectMapper.readValue(line, ExamResponseDto.class);
+            assertThat(exam.getSubject()).isEqualTo("Programming");
+        }
+    }
+
+    @Test
+    void shouldSearchExamsByRegexOnlyWhenRequested() throws Exception {
+        createExam("Java Advanced Programming", "Programming", "Advanced", "user1");
+        createExam("Advanced Java Patterns", "Programming", "Advanced", "user2");
+
+        mockMvc.perform(get("/exams/search")
+                        .param("title", "^java")
+                        .param("regex", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("Java Advanced Programming"));
+
+        mockMvc.perform(get("/exams/search")
+                        .param("title", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
     @Test
     void shouldCountExamsByCriteria() throws Exception {
         // Create exams
@@ -0,0 +1,175 @@
+package com.eximia.exams.mesagging.consumer;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.exception.CustomException;
+import com.eximia.exams.service.ExamCreationPipeline;
+import com.eximia.exams.service.ExamCreationPipeline.PreparedExam;
+import com.eximia.exams.service.ExamSubmissionService;
+import com.eximia.exams.service.IdempotencyService;
+import com.eximia.exams.service.IdempotencyService.Claims;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamBatchMessageConsumerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExamCreationPipeline pipeline;
+    private ExamSubmissionService submissionService;
+    private IdempotencyService idempotencyService;
+    private Channel channel;
+    private RabbitTemplate rabbitTemplate;
+    private ExamBatchMessageConsumer consumer;
+
+    @BeforeEach
+    void init() {
+        pipeline = mock(ExamCreationPipeline.class);
+        submissionService = mock(ExamSubmissionService.class);
+        idempotencyService = mock(IdempotencyService.class);
+        channel = mock(Channel.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        consumer = new ExamBatchMessageConsumer(pipeline, submissionService, idempotencyService,
+                mock(ApplicationEventPublisher.class), objectMapper, rabbitTemplate);
+
+        when(idempotencyService.claimAll(any())).thenReturn(new Claims(Map.of(), Set.of(), Map.of()));
+
+        when(pipeline.prepare(any(ExamRequestDto.class))).thenAnswer(invocation -> {
+            ExamRequestDto request = invocation.getArgument(0);
+            if (request.getTitle().startsWith("invalid")) {
+                throw new CustomException("Invalid exam");
+            }
+            return new PreparedExam(Exam.builder().id(request.getTitle() + "-id").build(), List.of(), List.of());
+        });
+        when(pipeline.toResponseDto(any(PreparedExam.class))).thenReturn(new ExamResponseDto());
+    }
+
+    @Test
+    void shouldPersistValidMessagesTogetherAndDeadLetterInvalidOnes() throws Exception {
+        consumer.handleExamCreationBatch(List.of(
+                message(1, "first", "ticket-1"),
+                message(2, "invalid", "ticket-2"),
+                message(3, "third", "ticket-3")
+        ), channel);
+
+        verify(pipeline, times(1)).persist(argThat(exams -> exams.size() == 2));
+        verify(channel).basicReject(2, false);
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(3, false);
+        verify(submissionService).recordError("ticket-2", "Invalid exam");
+        verify(submissionService).markCreated(Map.of("ticket-1", "first-id", "ticket-3", "third-id"));
+    }
+
+    @Test
+    void shouldFallBackToPerExamInsertsWhenBulkInsertFails() throws Exception {
+        doThrow(new RuntimeException("bulk failed")).when(pipeline).persist(argThat(exams -> exams.size() > 1));
+        doThrow(new RuntimeException("too large")).when(pipeline)
+                .persist(argThat(exams -> exams.size() == 1 && exams.get(0).getExam().getId().equals("second-id")));
+
+        consumer.handleExamCreationBatch(List.of(
+                message(1, "first", null),
+                message(2, "second", null)
+        ), channel);
+
+        verify(pipeline).discard(argThat(exams -> exams.size() == 2));
+        verify(pipeline).discard(argThat(exams -> exams.size() == 1 && exams.get(0).getExam().getId().equals("second-id")));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicReject(2, false);
+        verify(channel, never()).basicAck(eq(2L), any(Boolean.class));
+    }
+
+    @Test
+    void shouldAcknowledgeARedeliveredMessageWithoutCreatingItAgain() throws Exception {
+        when(idempotencyService.claimAll(any())).thenReturn(
+                new Claims(Map.of("message-1", "first-id"), Set.of(), Map.of("message-2", "lost-id")));
+
+        consumer.handleExamCreationBatch(List.of(
+                message(1, "first", "ticket-1", "message-1"),
+                message(2, "second", "ticket-2", "message-2")
+        ), channel);
+
+        verify(pipeline).persist(argThat(exams -> exams.size() == 1 && exams.get(0).getExam().getId().equals("second-id")));
+        verify(pipeline).discardOrphans("lost-id");
+        verify(submissionService).markCreated(Map.of("ticket-1", "first-id"));
+        verify(idempotencyService).completeAll(Map.of("message-2", "second-id"));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+    }
+
+    @Test
+    void shouldAcknowledgePersistedExamsWhenRecordingThemFails() throws Exception {
+        doThrow(new RuntimeException("tickets unavailable")).when(submissionService).markCreated(anyMap());
+
+        consumer.handleExamCreationBatch(List.of(
+                message(1, "first", "ticket-1", "message-1"),
+                message(2, "first", "ticket-2", "message-1")
+        ), channel);
+
+        verify(pipeline).persist(argThat(exams -> exams.size() == 1));
+        verify(channel).basicAck(1, false);
+        verify(rabbitTemplate).send(eq(""), eq(RabbitConfig.EXAM_REQUEST_RETRY_QUEUE),
+                argThat(message -> message.getMessageProperties().getDeliveryTag() == 2));
+        verify(channel).basicAck(2, false);
+        verify(channel, never()).basicNack(anyLong(), any(Boolean.class), any(Boolean.class));
+        verify(channel, never()).basicReject(anyLong(), any(Boolean.class));
+    }
+
+    @Test
+    void shouldDelayMessagesWhoseKeyIsHeldElsewhereAndRequeueThemWhenTheRetryQueueIsUnreachable() throws Exception {
+        when(idempotencyService.claimAll(any())).thenReturn(
+                new Claims(Map.of(), Set.of("message-1", "message-2"), Map.of()));
+        doThrow(new AmqpConnectException(new ConnectException("refused"))).when(rabbitTemplate)
+                .send(anyString(), anyString(), argThat(message -> "message-2".equals(message.getMessageProperties().getMessageId())));
+
+        consumer.handleExamCreationBatch(List.of(
+                message(1, "first", "ticket-1", "message-1"),
+                message(2, "second", "ticket-2", "message-2")
+        ), channel);
+
+        verify(pipeline, never()).persist(any());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(channel, never()).basicAck(eq(2L), any(Boolean.class));
+    }
+
+    private Message message(long deliveryTag, String title, String ticketId) throws Exception {
+        return message(deliveryTag, title, ticketId, null);
+    }
+
+    private Message message(long deliveryTag, String title, String ticketId, String messageId) throws Exception {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(messageId);
+        properties.setDeliveryTag(deliveryTag);
+        if (ticketId != null) {
+            properties.setHeader(RabbitConfig.EXAM_TICKET_HEADER, ticketId);
+        }
+        return new Message(objectMapper.writeValueAsBytes(ExamRequestDto.builder().title(title).build()), properties);
+    }
+}
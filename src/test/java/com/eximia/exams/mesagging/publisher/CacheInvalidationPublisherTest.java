@@ -0,0 +1,80 @@
+package com.eximia.exams.mesagging.publisher;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.events.CacheInvalidationMessage;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidationPublisherTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private CacheInvalidationPublisher publisher;
+
+    @BeforeEach
+    void init() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        publisher = new CacheInvalidationPublisher(rabbitTemplate);
+    }
+
+    @Test
+    void shouldCoalesceTheChangesOfAFlushIntoOneMessage() {
+        publisher.onExamChanged(ExamChangedEvent.updated("exam-1", Set.of("q1", "q2")));
+        publisher.onExamChanged(ExamChangedEvent.updated("exam-1", Set.of("q2")));
+        publisher.onExamChanged(ExamChangedEvent.deleted("exam-2"));
+
+        publisher.flush();
+        publisher.flush();
+
+        ArgumentCaptor<CacheInvalidationMessage> captor = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(rabbitTemplate, times(1))
+                .convertAndSend(eq(RabbitConfig.CACHE_INVALIDATION_EXCHANGE), eq(""), captor.capture());
+        assertThat(captor.getValue().getOrigin()).isEqualTo(publisher.getNodeId());
+        assertThat(captor.getValue().getExamIds()).containsExactlyInAnyOrder("exam-1", "exam-2");
+        assertThat(captor.getValue().getQuestionIds()).containsExactlyInAnyOrder("q1", "q2");
+    }
+
+    @Test
+    void shouldKeepTheChangesOfAFailedFlushForTheNextOne() {
+        publisher.onExamChanged(ExamChangedEvent.updated("exam-1", Set.of("q1")));
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+
+        publisher.flush();
+
+        ArgumentCaptor<CacheInvalidationMessage> captor = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), captor.capture());
+        assertThat(captor.getValue().getExamIds()).containsExactly("exam-1");
+
+        publisher.flush();
+
+        verify(rabbitTemplate, times(2)).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void shouldAskTheOtherReplicasToPreloadRightAway() {
+        publisher.publishWarmUp(List.of("exam-1", "exam-2"));
+
+        ArgumentCaptor<CacheInvalidationMessage> captor = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitConfig.CACHE_INVALIDATION_EXCHANGE), eq(""), captor.capture());
+        assertThat(captor.getValue().getOrigin()).isEqualTo(publisher.getNodeId());
+        assertThat(captor.getValue().getWarmUpExamIds()).containsExactlyInAnyOrder("exam-1", "exam-2");
+        assertThat(captor.getValue().getExamIds()).isNull();
+    }
+}
@@ -0,0 +1,93 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.dto.criteria.ExamCriteria;
+import com.eximia.exams.exception.CustomException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CriteriaCompilerTest {
+
+    private static final CriteriaSpec<ExamCriteria> SPEC = CriteriaSpec.of(ExamCriteria.class)
+            .exact("subject", ExamCriteria::getSubject)
+            .text("title", ExamCriteria::getTitle)
+            .prefix("title", ExamCriteria::getTitlePrefix)
+            .range("duration_minutes", ExamCriteria::getDurationInMinutesMin, ExamCriteria::getDurationInMinutesMax)
+            .search(ExamCriteria::getSearchText, "title", "description")
+            .regexFlag(ExamCriteria::getRegex);
+
+    private final CriteriaCompiler criteriaCompiler = new CriteriaCompiler();
+
+    @Test
+    void shouldCompileAFlatFilterWithTextAtTheTopLevel() {
+        ExamCriteria criteria = ExamCriteria.builder()
+                .subject("Programming")
+                .title("design patterns")
+                .durationInMinutesMin(30)
+                .searchText("java")
+                .build();
+
+        Document filter = criteriaCompiler.compile(SPEC, criteria).getCriteriaObject();
+
+        assertThat(filter).doesNotContainKey("$and");
+        assertThat(filter.get("subject")).isEqualTo("Programming");
+        assertThat(filter.get("duration_minutes")).isEqualTo(new Document("$gte", 30));
+        assertThat(filter.get("$text", Document.class).getString("$search")).isEqualTo("java \"design patterns\"");
+    }
+
+    @Test
+    void shouldAnchorAndEscapePrefixes() {
+        ExamCriteria criteria = ExamCriteria.builder().titlePrefix("C++ (intro").build();
+
+        Pattern pattern = (Pattern) criteriaCompiler.compile(SPEC, criteria).getCriteriaObject().get("title");
+
+        assertThat(pattern.pattern()).isEqualTo("^C\\+\\+ \\(intro");
+        assertThat(pattern.flags() & Pattern.CASE_INSENSITIVE).isNotZero();
+        assertThat(pattern.matcher("c++ (Intro) to templates").find()).isTrue();
+    }
+
+    @Test
+    void shouldMatchTextAsRegexOnlyWhenRequested() {
+        ExamCriteria criteria = ExamCriteria.builder().subject("Math").searchText("alg.bra").regex(true).build();
+
+        Document filter = criteriaCompiler.compile(SPEC, criteria).getCriteriaObject();
+
+        assertThat(filter).doesNotContainKey("$text");
+        assertThat(filter.get("subject")).isEqualTo("Math");
+        assertThat(filter.getList("$or", Document.class)).hasSize(2);
+        assertThatThrownBy(() -> criteriaCompiler.compile(SPEC, ExamCriteria.builder().title("(").regex(true).build()))
+                .isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void shouldCombineClausesOnTheSameFieldUnderAnd() {
+        ExamCriteria criteria = ExamCriteria.builder()
+                .subject("Math")
+                .title("algebra")
+                .titlePrefix("Intro")
+                .regex(true)
+                .build();
+
+        Document filter = criteriaCompiler.compile(SPEC, criteria).getCriteriaObject();
+
+        assertThat(filter.get("subject")).isEqualTo("Math");
+        assertThat(((Pattern) filter.get("title")).pattern()).isEqualTo("algebra");
+        assertThat(filter.getList("$and", Document.class))
+                .singleElement()
+                .satisfies(clause -> assertThat(((Pattern) clause.get("title")).pattern()).isEqualTo("^Intro"));
+    }
+
+    @Test
+    void shouldReuseTheTemplateOfTheSameShape() {
+        List<CriteriaSpec.FieldSpec<ExamCriteria>> first = SPEC.template(ExamCriteria.builder().subject("Math").build());
+        List<CriteriaSpec.FieldSpec<ExamCriteria>> second = SPEC.template(ExamCriteria.builder().subject("Art").build());
+
+        assertThat(second).isSameAs(first).hasSize(1);
+        assertThat(criteriaCompiler.compile(SPEC, new ExamCriteria())).isNull();
+    }
+}
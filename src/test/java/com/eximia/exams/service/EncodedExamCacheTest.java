@@ -0,0 +1,63 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.service.EncodedExamCache.EncodedExam;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedExamCacheTest {
+
+    private static final byte[] JSON = "{\"id\":\"exam-1\",\"title\":\"Java\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldServeEntriesOnlyForTheVersionTheyWereSerializedAt() {
+        EncodedExamCache cache = cache(true);
+        cache.put("exam-1", 3, JSON);
+
+        assertThat(cache.find("exam-1", 3)).isPresent();
+        assertThat(cache.find("exam-1", 4)).isEmpty();
+
+        cache.onExamChanged(ExamChangedEvent.updated("exam-1", Set.of()));
+        assertThat(cache.find("exam-1", 3)).isEmpty();
+    }
+
+    @Test
+    void shouldStoreGzippedBytesOffHeapAndDecompressForClientsWithoutGzip() throws Exception {
+        EncodedExam encodedExam = cache(true).put("exam-1", 1, JSON);
+
+        assertThat(encodedExam.bytes().isDirect()).isTrue();
+        assertThat(encodedExam.size()).isLessThan(JSON.length);
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        encodedExam.writeTo(gzipped, true);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray())).readAllBytes()).isEqualTo(JSON);
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        encodedExam.writeTo(plain, false);
+        assertThat(plain.toByteArray()).isEqualTo(JSON);
+    }
+
+    @Test
+    void shouldWriteUncompressedEntriesAsStored() throws Exception {
+        EncodedExam encodedExam = cache(false).put("exam-1", 1, JSON);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        encodedExam.writeTo(output, true);
+
+        assertThat(encodedExam.gzipped()).isFalse();
+        assertThat(output.toByteArray()).isEqualTo(JSON);
+    }
+
+    private static EncodedExamCache cache(boolean gzip) {
+        return new EncodedExamCache(true, DataSize.ofMegabytes(1), gzip, new SimpleMeterRegistry());
+    }
+}
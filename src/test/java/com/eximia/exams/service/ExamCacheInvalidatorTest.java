@@ -0,0 +1,33 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.CacheConfig;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExamCacheInvalidatorTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.EXAMS_CACHE);
+    private final ExamCacheInvalidator invalidator = new ExamCacheInvalidator(cacheManager,
+            new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(5)));
+
+    @Test
+    void shouldEvictOnlyTheParentExamOfAChangedQuestion() {
+        Cache cache = cacheManager.getCache(CacheConfig.EXAMS_CACHE);
+        cache.put("exam-1", new ExamResponseDto());
+        cache.put("exam-2", new ExamResponseDto());
+
+        invalidator.onExamChanged(ExamChangedEvent.updated("exam-1", List.of("question-1")));
+
+        assertThat(cache.get("exam-1")).isNull();
+        assertThat(cache.get("exam-2")).isNotNull();
+    }
+}
@@ -0,0 +1,271 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.enums.QuestionType;
+import com.eximia.exams.dto.request.ExamRequestDto;
+import com.eximia.exams.dto.request.OptionRequestDto;
+import com.eximia.exams.dto.request.QuestionRequestDto;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.exception.CustomException;
+import com.eximia.exams.mapper.ExamMapper;
+import com.eximia.exams.mapper.ExamMapperImpl;
+import com.eximia.exams.mapper.OptionMapper;
+import com.eximia.exams.mapper.OptionMapperImpl;
+import com.eximia.exams.mapper.QuestionMapper;
+import com.eximia.exams.mapper.QuestionMapperImpl;
+import com.eximia.exams.repository.ExamRepository;
+import com.eximia.exams.repository.OptionRepository;
+import com.eximia.exams.repository.QuestionRepository;
+import com.eximia.exams.service.impl.DragAndDropValidationStrategy;
+import com.eximia.exams.service.impl.MultipleChoiceValidationStrategy;
+import com.eximia.exams.service.impl.MultipleSelectionValidationStrategy;
+import com.eximia.exams.service.impl.OptionServiceImpl;
+import com.eximia.exams.service.impl.PointsDistributionServiceImpl;
+import com.eximia.exams.service.impl.QuestionServiceImpl;
+import com.eximia.exams.service.impl.TrueFalseValidationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts database round trips for creating a 50 question x 4 option exam, comparing the per-entity
+ * service path with the bulk creation pipeline. Every call on a repository or on the template is one
+ * round trip.
+ */
+class ExamCreationPipelineTest {
+
+    private static final int QUESTIONS = 50;
+    private static final int OPTIONS_PER_QUESTION = 4;
+
+    private final ExamMapper examMapper = new ExamMapperImpl();
+    private final QuestionMapper questionMapper = new QuestionMapperImpl();
+    private final OptionMapper optionMapper = new OptionMapperImpl();
+    private final PointsDistributionService pointsDistributionService = new PointsDistributionServiceImpl();
+    private final QuestionValidationFactory questionValidationFactory = new QuestionValidationFactory(List.of(
+            new MultipleChoiceValidationStrategy(),
+            new MultipleSelectionValidationStrategy(),
+            new TrueFalseValidationStrategy(),
+            new DragAndDropValidationStrategy()
+    ));
+
+    private ExamRepository examRepository;
+    private QuestionRepository questionRepository;
+    private OptionRepository optionRepository;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void init() {
+        examRepository = mock(ExamRepository.class);
+        questionRepository = mock(QuestionRepository.class);
+        optionRepository = mock(OptionRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+
+        when(examRepository.existsById(anyString())).thenReturn(true);
+        when(questionRepository.existsById(anyString())).thenReturn(true);
+        when(questionRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.of(Question.builder().id(invocation.getArgument(0)).build()));
+        when(examRepository.save(any(Exam.class))).thenAnswer(invocation -> {
+            Exam exam = invocation.getArgument(0);
+            if (exam.getId() == null) {
+                exam.setId(new ObjectId().toHexString());
+            }
+            return exam;
+        });
+        when(questionRepository.save(any(Question.class))).thenAnswer(invocation -> {
+            Question question = invocation.getArgument(0);
+            if (question.getId() == null) {
+                question.setId(new ObjectId().toHexString());
+            }
+            return question;
+        });
+        when(optionRepository.save(any(Option.class))).thenAnswer(invocation -> {
+            Option option = invocation.getArgument(0);
+            if (option.getId() == null) {
+                option.setId(new ObjectId().toHexString());
+            }
+            return option;
+        });
+    }
+
+    @Test
+    void shouldCreateExamWithConstantNumberOfRoundTrips() {
+        long before = roundTripsOfPerEntityCreation(createLargeExamRequest());
+        long after = roundTripsOfPipelineCreation(createLargeExamRequest());
+
+        // At least one save per question and per option on the per-entity path, one insertMany per collection on the pipeline
+        assertThat(before).isGreaterThan((long) QUESTIONS * (OPTIONS_PER_QUESTION + 1));
+        assertThat(after).isEqualTo(3);
+    }
+
+    @Test
+    void shouldBuildResponseFromInMemoryTree() {
+        ExamCreationPipeline pipeline = createPipeline();
+
+        ExamCreationPipeline.PreparedExam preparedExam = pipeline.prepare(createLargeExamRequest());
+        ExamResponseDto responseDto = pipeline.toResponseDto(preparedExam);
+
+        assertThat(responseDto.getId()).isEqualTo(preparedExam.getExam().getId());
+        assertThat(responseDto.getTotalPoints()).isEqualTo(100.0);
+        assertThat(responseDto.getQuestionIds()).hasSize(QUESTIONS);
+        assertThat(responseDto.getQuestions()).hasSize(QUESTIONS);
+        assertThat(responseDto.getQuestions()).allSatisfy(question -> {
+            assertThat(question.getExamId()).isEqualTo(responseDto.getId());
+            assertThat(question.getOptions()).hasSize(OPTIONS_PER_QUESTION);
+            assertThat(question.getOptions()).allSatisfy(option ->
+                    assertThat(option.getQuestionId()).isEqualTo(question.getId()));
+        });
+        assertThat(responseDto.getQuestions().get(0).getOrderIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDistributeOptionPointsWhenTheQuestionsAlreadySumToTheTotal() {
+        ExamRequestDto examRequestDto = examRequestWithQuestionPoints(
+                options(null, null), options(null, null, null, null));
+
+        ExamCreationPipeline.PreparedExam preparedExam = createPipeline().prepare(examRequestDto);
+
+        assertThat(preparedExam.getOptions()).allSatisfy(option -> assertThat(option.getPoints()).isPositive());
+        assertThat(preparedExam.getOptions()).extracting(Option::getPoints)
+                .containsExactlyInAnyOrder(30.0, 30.0, 10.0, 10.0, 10.0, 10.0);
+    }
+
+    @Test
+    void shouldRejectOptionPointsThatDoNotSumToTheirQuestion() {
+        ExamRequestDto examRequestDto = examRequestWithQuestionPoints(
+                options(10.0, 10.0), options(null, null, null, null));
+
+        assertThatThrownBy(() -> createPipeline().prepare(examRequestDto))
+                .isInstanceOf(CustomException.class)
+                .hasMessageContaining("don't sum to question points");
+    }
+
+    private long roundTripsOfPerEntityCreation(ExamRequestDto examRequestDto) {
+        ApplicationEventPublisher eventPublisher = event -> { };
+        OptionService optionService = new OptionServiceImpl(optionRepository, questionRepository, optionMapper, eventPublisher,
+                new OptionListCache(1000, Duration.ofMinutes(10), new SimpleMeterRegistry()));
+        QuestionService questionService = new QuestionServiceImpl(questionRepository, examRepository, questionMapper,
+                optionService, questionValidationFactory, pointsDistributionService, eventPublisher,
+                new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(5)));
+
+        pointsDistributionService.distributeExamPoints(examRequestDto);
+        Exam exam = examRepository.save(examMapper.toEntity(examRequestDto));
+
+        List<String> questionIds = new ArrayList<>();
+        for (QuestionRequestDto questionRequestDto : examRequestDto.getQuestions()) {
+            questionIds.add(questionService.createQuestion(exam.getId(), questionRequestDto).getId());
+        }
+        exam.setQuestionIds(questionIds);
+        examRepository.save(exam);
+        questionService.getQuestionsByExamId(exam.getId());
+
+        return roundTrips();
+    }
+
+    private long roundTripsOfPipelineCreation(ExamRequestDto examRequestDto) {
+        long initial = roundTrips();
+
+        ExamCreationPipeline pipeline = createPipeline();
+        ExamCreationPipeline.PreparedExam preparedExam = pipeline.prepare(examRequestDto);
+        pipeline.persist(List.of(preparedExam));
+        pipeline.toResponseDto(preparedExam);
+
+        return roundTrips() - initial;
+    }
+
+    private ExamCreationPipeline createPipeline() {
+        return new ExamCreationPipeline(mongoTemplate, examMapper, questionMapper, optionMapper,
+                questionValidationFactory, pointsDistributionService);
+    }
+
+    private long roundTrips() {
+        return Stream.of(examRepository, questionRepository, optionRepository, mongoTemplate)
+                .mapToLong(repository -> mockingDetails(repository).getInvocations().size())
+                .sum();
+    }
+
+    private ExamRequestDto createLargeExamRequest() {
+        List<QuestionRequestDto> questions = new ArrayList<>();
+        for (int q = QUESTIONS; q >= 1; q--) {
+            List<OptionRequestDto> options = new ArrayList<>();
+            for (int o = 1; o <= OPTIONS_PER_QUESTION; o++) {
+                options.add(OptionRequestDto.builder()
+                        .optionText("Option " + o)
+                        .isCorrect(o == 1)
+                        .orderIndex(o)
+                        .build());
+            }
+            questions.add(QuestionRequestDto.builder()
+                    .questionText("Question " + q)
+                    .questionType(QuestionType.MULTIPLE_CHOICE)
+                    .orderIndex(q)
+                    .options(options)
+                    .build());
+        }
+
+        return ExamRequestDto.builder()
+                .title("Bulk Exam")
+                .description("Exam used to measure creation round trips")
+                .durationInMinutes(90)
+                .questions(questions)
+                .subject("Performance")
+                .difficultyLevel("Advanced")
+                .build();
+    }
+
+    /**
+     * Two questions worth 60 and 40 points, whose options carry the given points.
+     */
+    private static ExamRequestDto examRequestWithQuestionPoints(List<OptionRequestDto> first, List<OptionRequestDto> second) {
+        return ExamRequestDto.builder()
+                .title("Weighted Exam")
+                .durationInMinutes(30)
+                .questions(new ArrayList<>(List.of(
+                        QuestionRequestDto.builder()
+                                .questionText("First")
+                                .questionType(QuestionType.MULTIPLE_CHOICE)
+                                .orderIndex(1)
+                                .points(60.0)
+                                .options(first)
+                                .build(),
+                        QuestionRequestDto.builder()
+                                .questionText("Second")
+                                .questionType(QuestionType.MULTIPLE_CHOICE)
+                                .orderIndex(2)
+                                .points(40.0)
+                                .options(second)
+                                .build())))
+                .build();
+    }
+
+    private static List<OptionRequestDto> options(Double... points) {
+        List<OptionRequestDto> options = new ArrayList<>();
+        for (int o = 0; o < points.length; o++) {
+            options.add(OptionRequestDto.builder()
+                    .optionText("Option " + (o + 1))
+                    .isCorrect(o == 0)
+                    .orderIndex(o + 1)
+                    .points(points[o])
+                    .build());
+        }
+        return options;
+    }
+}
@@ -0,0 +1,100 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.RabbitConfig;
+import com.eximia.exams.domain.entities.OutboxEvent;
+import com.eximia.exams.domain.events.ExamLifecycleMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamOutboxRelayTest {
+
+    private MongoTemplate mongoTemplate;
+    private RabbitOperations operations;
+    private SimpleMeterRegistry meterRegistry;
+    private ExamOutboxRelay relay;
+
+    @BeforeEach
+    void init() {
+        mongoTemplate = mock(MongoTemplate.class);
+        operations = mock(RabbitOperations.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new ExamOutboxRelay(mongoTemplate, rabbitTemplate, meterRegistry, 10, 5000, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldRemoveEventsOnlyOnceTheBrokerConfirmsThem() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of(event("a"), event("b")))
+                .thenReturn(List.of(event("a"), event("b")))
+                .thenReturn(List.of());
+
+        relay.relay();
+
+        verify(operations).waitForConfirmsOrDie(5000);
+        verify(mongoTemplate).remove(any(Query.class), eq(OutboxEvent.class));
+        assertThat(meterRegistry.counter("exams.outbox.relay.published").count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepEventsWhenConfirmationTimesOut() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(event("a")));
+        doThrow(new AmqpTimeoutException("no confirm")).when(operations).waitForConfirmsOrDie(anyLong());
+
+        relay.relay();
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(OutboxEvent.class));
+        // Claimed, then released for the next run
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+        assertThat(meterRegistry.counter("exams.outbox.relay.failures").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("exams.outbox.relay.lag").gauge().value()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void shouldPublishOnlyTheEventsThisRunClaimed() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of(event("a"), event("b")))
+                .thenReturn(List.of(event("b")))
+                .thenReturn(List.of());
+
+        relay.relay();
+
+        verify(operations).convertAndSend(eq(RabbitConfig.EXAM_EXCHANGE), eq("exam.created"), any(Object.class),
+                any(MessagePostProcessor.class));
+        assertThat(meterRegistry.counter("exams.outbox.relay.published").count()).isEqualTo(1);
+    }
+
+    private static OutboxEvent event(String id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .routingKey("exam.created")
+                .message(ExamLifecycleMessage.builder().eventId(id).build())
+                .createdAt(LocalDateTime.now().minusSeconds(5))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.CacheConfig;
+import com.eximia.exams.domain.entities.ExamVersion;
+import com.eximia.exams.domain.entities.OutboxEvent;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamOutboxServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.EXAMS_CACHE);
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void init() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("test", Map.of("app.outbox.enabled", "true")));
+        context.registerBean(MongoTemplate.class, () -> mongoTemplate);
+        context.registerBean(CacheManager.class, () -> cacheManager);
+        context.registerBean(SingleFlight.class, () -> new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(5)));
+        context.registerBean(ExamOutboxService.class);
+        context.registerBean(ExamCacheInvalidator.class);
+        context.registerBean(ExamVersionService.class);
+        context.refresh();
+    }
+
+    @AfterEach
+    void close() {
+        context.close();
+    }
+
+    @Test
+    void shouldLetTheCacheAndVersionListenersRunWhenTheOutboxInsertFails() {
+        cacheManager.getCache(CacheConfig.EXAMS_CACHE).put("exam-1", new ExamResponseDto());
+        when(mongoTemplate.insert(any(OutboxEvent.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenThrow(new DuplicateKeyException("already recorded"));
+
+        context.publishEvent(ExamChangedEvent.updated("exam-1", List.of("question-1")));
+
+        assertThat(cacheManager.getCache(CacheConfig.EXAMS_CACHE).get("exam-1")).isNull();
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(ExamVersion.class));
+
+        ExamOutboxService outboxService = context.getBean(ExamOutboxService.class);
+        outboxService.retryPending();
+        outboxService.retryPending();
+
+        verify(mongoTemplate, times(2)).insert(any(OutboxEvent.class));
+    }
+}
@@ -0,0 +1,129 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.enums.QuestionType;
+import com.eximia.exams.dto.request.OptionRequestDto;
+import com.eximia.exams.dto.request.QuestionRequestDto;
+import com.eximia.exams.mapper.OptionMapperImpl;
+import com.eximia.exams.mapper.QuestionMapperImpl;
+import com.eximia.exams.repository.OptionRepository;
+import com.eximia.exams.repository.QuestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamTreeDiffTest {
+
+    private static final String EXAM_ID = "650000000000000000000000";
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations questionBulk;
+    private BulkOperations optionBulk;
+    private ExamTreeDiff examTreeDiff;
+
+    @BeforeEach
+    void init() {
+        mongoTemplate = mock(MongoTemplate.class);
+        questionBulk = mock(BulkOperations.class);
+        optionBulk = mock(BulkOperations.class);
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        OptionRepository optionRepository = mock(OptionRepository.class);
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Question.class)).thenReturn(questionBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Option.class)).thenReturn(optionBulk);
+        when(questionRepository.findByExamIdOrderByOrderIndexAsc(EXAM_ID)).thenReturn(List.of(
+                storedQuestion("q1", 1, "o11", "o12"),
+                storedQuestion("q2", 2, "o21", "o22")
+        ));
+        when(optionRepository.findByQuestionIdInOrderByQuestionIdAscOrderIndexAsc(any())).thenReturn(List.of(
+                storedOption("o11", "q1", 1, true), storedOption("o12", "q1", 2, false),
+                storedOption("o21", "q2", 1, true), storedOption("o22", "q2", 2, false)
+        ));
+
+        examTreeDiff = new ExamTreeDiff(mongoTemplate, questionRepository, optionRepository,
+                new QuestionMapperImpl(), new OptionMapperImpl());
+    }
+
+    @Test
+    void shouldOnlyRewriteTheChangedOption() {
+        List<QuestionRequestDto> incoming = List.of(incomingQuestion(1, "Option 1"), incomingQuestion(2, "Fixed typo"));
+
+        ExamTreeDiff.Result result = examTreeDiff.apply(EXAM_ID, incoming);
+
+        assertThat(result.getQuestions()).extracting(Question::getId).containsExactly("q1", "q2");
+        assertThat(result.getOptions()).extracting(Option::getId).containsExactly("o11", "o12", "o21", "o22");
+        assertThat(result.getTouchedQuestionIds()).containsExactly("q2");
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.ORDERED, Question.class);
+        verify(optionBulk, times(1)).replaceOne(any(Query.class), any(Option.class));
+        verify(optionBulk, never()).insert(anyList());
+        verify(optionBulk, never()).remove(any(Query.class));
+        verify(optionBulk).execute();
+    }
+
+    @Test
+    void shouldInsertAndDeleteQuestionsMatchedByOrderIndex() {
+        List<QuestionRequestDto> incoming = List.of(incomingQuestion(1, "Option 1"), incomingQuestion(3, "Option 1"));
+
+        ExamTreeDiff.Result result = examTreeDiff.apply(EXAM_ID, incoming);
+
+        assertThat(result.getQuestions()).extracting(Question::getId).startsWith("q1").doesNotContain("q2");
+        assertThat(result.getTouchedQuestionIds()).containsExactly("q2");
+        verify(questionBulk).insert(anyList());
+        verify(questionBulk).remove(any(Query.class));
+        verify(optionBulk).insert(anyList());
+        verify(optionBulk, times(1)).remove(any(Query.class));
+        verify(mongoTemplate, times(1)).bulkOps(eq(BulkOperations.BulkMode.ORDERED), eq(Option.class));
+    }
+
+    private QuestionRequestDto incomingQuestion(int orderIndex, String firstOptionText) {
+        List<OptionRequestDto> options = new ArrayList<>();
+        options.add(OptionRequestDto.builder().optionText(firstOptionText).isCorrect(true).points(5.0).orderIndex(1).build());
+        options.add(OptionRequestDto.builder().optionText("Option 2").isCorrect(false).points(0.0).orderIndex(2).build());
+        return QuestionRequestDto.builder()
+                .questionText("Question " + orderIndex)
+                .questionType(QuestionType.MULTIPLE_CHOICE)
+                .points(5.0)
+                .orderIndex(orderIndex)
+                .options(options)
+                .build();
+    }
+
+    private Question storedQuestion(String id, int orderIndex, String... optionIds) {
+        return Question.builder()
+                .id(id)
+                .examId(EXAM_ID)
+                .questionText("Question " + orderIndex)
+                .questionType(QuestionType.MULTIPLE_CHOICE)
+                .points(5.0)
+                .orderIndex(orderIndex)
+                .optionIds(new ArrayList<>(List.of(optionIds)))
+                .build();
+    }
+
+    private Option storedOption(String id, String questionId, int orderIndex, boolean correct) {
+        return Option.builder()
+                .id(id)
+                .questionId(questionId)
+                .optionText("Option " + orderIndex)
+                .isCorrect(correct)
+                .points(correct ? 5.0 : 0.0)
+                .orderIndex(orderIndex)
+                .build();
+    }
+}
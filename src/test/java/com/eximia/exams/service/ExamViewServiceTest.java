@@ -0,0 +1,99 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.ExamView;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.mapper.ExamMapperImpl;
+import com.eximia.exams.repository.ExamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamViewServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private ExamRepository examRepository;
+    private QuestionService questionService;
+    private ExamViewService examViewService;
+
+    @BeforeEach
+    void init() {
+        mongoTemplate = mock(MongoTemplate.class);
+        examRepository = mock(ExamRepository.class);
+        questionService = mock(QuestionService.class);
+        examViewService = new ExamViewService(mongoTemplate, examRepository, new ExamMapperImpl(), questionService);
+        ReflectionTestUtils.setField(examViewService, "enabled", true);
+
+        Exam exam = new Exam();
+        exam.setId("exam-1");
+        when(examRepository.findById("exam-1")).thenReturn(Optional.of(exam));
+        when(questionService.getQuestionsByExamId("exam-1")).thenReturn(List.of());
+    }
+
+    @Test
+    void shouldRebuildAViewOncePerRefreshWhateverTheNumberOfWrites() {
+        for (int i = 0; i < 5; i++) {
+            examViewService.onExamChanged(ExamChangedEvent.updated("exam-1", Set.of("question-" + i)));
+        }
+
+        verify(mongoTemplate, times(5)).remove(any(Query.class), eq(ExamView.class));
+        verify(examRepository, never()).findById(any());
+
+        examViewService.refreshPending();
+        examViewService.refreshPending();
+
+        verify(examRepository, times(1)).findById("exam-1");
+        verify(mongoTemplate, times(1)).save(any(ExamView.class));
+    }
+
+    @Test
+    void shouldNotFailTheWriteWhenTheViewCannotBeStored() {
+        when(mongoTemplate.save(any(ExamView.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThatCode(() -> examViewService.onExamChanged(
+                ExamChangedEvent.created(ExamResponseDto.builder().id("exam-1").build())))
+                .doesNotThrowAnyException();
+
+        examViewService.refreshPending();
+
+        verify(examRepository).findById("exam-1");
+        verify(mongoTemplate, times(2)).save(any(ExamView.class));
+    }
+
+    @Test
+    void shouldBackfillOnlyOnceTheReadTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            examViewService.backfill(ExamResponseDto.builder().id("exam-1").build());
+            verify(mongoTemplate, never()).insert(any(ExamView.class));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(mongoTemplate).insert(any(ExamView.class));
+    }
+}
@@ -0,0 +1,110 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.config.CacheConfig;
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.dto.response.CacheWarmUpDto;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.mapper.ExamMapperImpl;
+import com.eximia.exams.repository.ExamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamWarmUpServiceTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.EXAMS_CACHE);
+
+    private ExamRepository examRepository;
+    private QuestionService questionService;
+    private ExamVersionService examVersionService;
+    private EncodedExamCache encodedExamCache;
+    private ExamWarmUpService examWarmUpService;
+
+    @BeforeEach
+    void init() {
+        examRepository = mock(ExamRepository.class);
+        questionService = mock(QuestionService.class);
+        examVersionService = mock(ExamVersionService.class);
+        encodedExamCache = new EncodedExamCache(true, DataSize.ofMegabytes(1), false, new SimpleMeterRegistry());
+        examWarmUpService = new ExamWarmUpService(examRepository, new ExamMapperImpl(), questionService,
+                examVersionService, mock(ExamAccessTracker.class), cacheManager, encodedExamCache,
+                new ObjectMapper().findAndRegisterModules(), false, 200, Duration.ofDays(7), 2);
+
+        when(examVersionService.findVersions(anyCollection())).thenReturn(Map.of("exam-1", 3L));
+        when(examRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !id.equals("exam-4")).map(ExamWarmUpServiceTest::exam).toList();
+        });
+        when(questionService.getQuestionsByExamIds(anyCollection())).thenReturn(
+                Map.of("exam-1", List.of(QuestionResponseDto.builder().id("q1").examId("exam-1").build())));
+    }
+
+    @Test
+    void shouldLoadTheExamsInBatchesTaggedWithTheirVersion() {
+        CacheWarmUpDto result = examWarmUpService.warmUp(List.of("exam-1", "exam-2", "exam-1", "exam-3", "exam-4"));
+
+        assertThat(result.getRequested()).isEqualTo(4);
+        assertThat(result.getLoaded()).isEqualTo(3);
+        assertThat(result.getMissingExamIds()).containsExactly("exam-4");
+        verify(examRepository, times(2)).findAllById(anyCollection());
+        verify(questionService, times(2)).getQuestionsByExamIds(anyCollection());
+
+        Cache cache = cacheManager.getCache(CacheConfig.EXAMS_CACHE);
+        ExamResponseDto first = cache.get("exam-1", ExamResponseDto.class);
+        assertThat(first.getVersion()).isEqualTo(3L);
+        assertThat(first.getQuestions()).extracting(QuestionResponseDto::getId).containsExactly("q1");
+        assertThat(cache.get("exam-2", ExamResponseDto.class).getVersion()).isZero();
+        assertThat(cache.get("exam-2", ExamResponseDto.class).getQuestions()).isEmpty();
+        assertThat(cache.get("exam-4")).isNull();
+        assertThat(encodedExamCache.find("exam-1", 3L)).isPresent();
+        assertThat(encodedExamCache.find("exam-2", 0L)).isPresent();
+    }
+
+    @Test
+    void shouldLeaveOutExamsWrittenWhilePreloading() {
+        when(examVersionService.findVersions(anyCollection()))
+                .thenReturn(Map.of("exam-1", 3L))
+                .thenReturn(Map.of("exam-1", 4L));
+
+        CacheWarmUpDto result = examWarmUpService.warmUp(List.of("exam-1", "exam-2"));
+
+        assertThat(result.getLoaded()).isEqualTo(2);
+        assertThat(cacheManager.getCache(CacheConfig.EXAMS_CACHE).get("exam-1")).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.EXAMS_CACHE).get("exam-2")).isNotNull();
+        assertThat(encodedExamCache.find("exam-1", 3L)).isEmpty();
+    }
+
+    @Test
+    void shouldNotReplaceAnExamAlreadyCached() {
+        ExamResponseDto cached = ExamResponseDto.builder().id("exam-1").version(4L).build();
+        cacheManager.getCache(CacheConfig.EXAMS_CACHE).put("exam-1", cached);
+
+        examWarmUpService.warmUp(List.of("exam-1"));
+
+        assertThat(cacheManager.getCache(CacheConfig.EXAMS_CACHE).get("exam-1", ExamResponseDto.class)).isSameAs(cached);
+    }
+
+    private static Exam exam(String id) {
+        Exam exam = new Exam();
+        exam.setId(id);
+        exam.setTitle("Exam " + id);
+        return exam;
+    }
+}
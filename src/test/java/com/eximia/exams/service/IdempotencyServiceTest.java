@@ -0,0 +1,108 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.domain.entities.IdempotencyRecord;
+import com.eximia.exams.domain.enums.IdempotencyStatus;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.exception.IdempotencyConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @BeforeEach
+    void init() {
+        mongoTemplate = mock(MongoTemplate.class);
+        idempotencyService = new IdempotencyService(mongoTemplate, Duration.ofHours(24), Duration.ofSeconds(60), 100);
+    }
+
+    @Test
+    void shouldReplayRetriesFromTheCacheWithoutCreatingAgain() {
+        ExamResponseDto first = idempotencyService.execute("key-1", this::create, this::load);
+        ExamResponseDto retry = idempotencyService.execute("key-1", this::create, this::load);
+
+        assertThat(creations).hasValue(1);
+        assertThat(retry.getId()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void shouldReplayKeysCompletedByAnotherInstance() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById("key-2", IdempotencyRecord.class)).thenReturn(IdempotencyRecord.builder()
+                .id("key-2").status(IdempotencyStatus.COMPLETED).examId("exam-2").createdAt(LocalDateTime.now()).build());
+
+        ExamResponseDto replay = idempotencyService.execute("key-2", this::create, this::load);
+
+        assertThat(creations).hasValue(0);
+        assertThat(replay.getId()).isEqualTo("exam-2");
+    }
+
+    @Test
+    void shouldRejectKeysStillInProgress() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById(eq("key-3"), eq(IdempotencyRecord.class))).thenReturn(IdempotencyRecord.builder()
+                .id("key-3").status(IdempotencyStatus.IN_PROGRESS).createdAt(LocalDateTime.now()).build());
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-3", this::create, this::load))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(creations).hasValue(0);
+    }
+
+    @Test
+    void shouldSortTheKeysOfABatchByWhatHappenedToTheirFirstAttempt() {
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(IdempotencyRecord.class))).thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenReturn(bulkOps);
+        when(mongoTemplate.find(any(Query.class), eq(IdempotencyRecord.class))).thenReturn(List.of(
+                IdempotencyRecord.builder().id("written").status(IdempotencyStatus.IN_PROGRESS)
+                        .examId("exam-1").createdAt(LocalDateTime.now()).build(),
+                IdempotencyRecord.builder().id("running").status(IdempotencyStatus.IN_PROGRESS)
+                        .examId("exam-2").createdAt(LocalDateTime.now()).build()));
+        when(mongoTemplate.find(any(Query.class), eq(Exam.class))).thenReturn(List.of(Exam.builder().id("exam-1").build()));
+
+        IdempotencyService.Claims claims = idempotencyService.claimAll(
+                Map.of("written", "exam-9", "running", "exam-8", "new", "exam-7"));
+
+        assertThat(claims.completed()).isEqualTo(Map.of("written", "exam-1"));
+        assertThat(claims.inProgress()).containsExactly("running");
+        assertThat(claims.abandoned()).isEmpty();
+        verify(bulkOps).insert(argThat((List<?> records) -> records.size() == 1
+                && ((IdempotencyRecord) records.get(0)).getExamId().equals("exam-7")));
+    }
+
+    private ExamResponseDto create() {
+        ExamResponseDto exam = new ExamResponseDto();
+        exam.setId("exam-" + creations.incrementAndGet());
+        return exam;
+    }
+
+    private ExamResponseDto load(String examId) {
+        ExamResponseDto exam = new ExamResponseDto();
+        exam.setId(examId);
+        return exam;
+    }
+}
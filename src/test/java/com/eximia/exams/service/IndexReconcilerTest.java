@@ -0,0 +1,135 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.dto.response.IndexReportDto;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexReconcilerTest {
+
+    private MongoTemplate mongoTemplate;
+    private IndexOperations indexOperations;
+    private IndexReconciler indexReconciler;
+
+    @BeforeEach
+    void init() {
+        mongoTemplate = mock(MongoTemplate.class);
+        indexOperations = mock(IndexOperations.class);
+        when(mongoTemplate.getCollectionName(any())).thenAnswer(invocation ->
+                ((Class<?>) invocation.getArgument(0)).getSimpleName().toLowerCase());
+        when(mongoTemplate.indexOps(anyString())).thenReturn(indexOperations);
+        indexReconciler = new IndexReconciler(mongoTemplate, new IndexRegistry(Duration.ofHours(24)), false);
+    }
+
+    @Test
+    void shouldBuildOnlyTheMissingIndexes() {
+        givenIndexes(List.of(
+                index("_id_", new Document("_id", 1)),
+                index("by_author", new Document("created_by", 1)),
+                index("subject_difficulty_level", new Document("subject", 1).append("difficulty_level", 1)),
+                index("created_at", new Document("created_at", 1))));
+
+        List<String> created = indexReconciler.reconcile();
+
+        assertThat(created).doesNotContain("exam.created_by", "exam.subject_difficulty_level", "exam.created_at");
+        assertThat(created).contains("question.exam_id_order_index", "option.question_id_order_index");
+        verify(indexOperations, times(created.size())).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void shouldBuildOnlyRequiredIndexesOnStartupWhenReconciliationIsOff() {
+        givenIndexes(List.of(index("_id_", new Document("_id", 1))));
+
+        indexReconciler.onApplicationStarted();
+        indexReconciler.onApplicationReady();
+
+        ArgumentCaptor<IndexDefinition> built = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, times(4)).ensureIndex(built.capture());
+        assertThat(built.getAllValues()).extracting(index -> index.getIndexOptions().getString("name"))
+                .containsExactlyInAnyOrder("exam_text", "question_text", "option_text", "created_at_ttl");
+    }
+
+    @Test
+    void shouldReportMissingUnusedAndUnmanagedIndexes() {
+        givenIndexes(List.of(
+                index("_id_", new Document("_id", 1)),
+                index("created_by", new Document("created_by", 1)),
+                index("subject_difficulty_level", new Document("subject", 1).append("difficulty_level", 1)),
+                index("legacy_difficulty", new Document("difficulty_level", 1))));
+        givenAccesses(List.of(
+                stats("_id_", 10), stats("created_by", 5), stats("subject_difficulty_level", 0), stats("legacy_difficulty", 0)));
+
+        IndexReportDto report = indexReconciler.report().stream()
+                .filter(entry -> entry.getCollection().equals(mongoTemplate.getCollectionName(Exam.class)))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(report.getMissing()).containsExactly("created_at", "title", "exam_text");
+        assertThat(report.getUnused()).containsExactly("subject_difficulty_level", "legacy_difficulty");
+        assertThat(report.getUnmanaged()).containsExactly("legacy_difficulty");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenIndexes(List<Document> indexes) {
+        MongoCollection<Document> collection = mongoCollection();
+        ListIndexesIterable<Document> iterable = mock(ListIndexesIterable.class);
+        when(collection.listIndexes()).thenReturn(iterable);
+        when(iterable.into(any())).thenAnswer(invocation -> {
+            Collection<Document> target = invocation.getArgument(0);
+            target.addAll(indexes);
+            return target;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenAccesses(List<Document> stats) {
+        MongoCollection<Document> collection = mongoCollection();
+        AggregateIterable<Document> iterable = mock(AggregateIterable.class);
+        when(collection.aggregate(anyList())).thenReturn(iterable);
+        doAnswer(invocation -> {
+            stats.forEach(invocation.<Consumer<Document>>getArgument(0));
+            return null;
+        }).when(iterable).forEach(any(Consumer.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MongoCollection<Document> mongoCollection() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection("exam");
+        if (collection == null) {
+            collection = mock(MongoCollection.class);
+            when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+        }
+        return collection;
+    }
+
+    private static Document index(String name, Document keys) {
+        return new Document("name", name).append("key", keys);
+    }
+
+    private static Document stats(String name, long ops) {
+        return new Document("name", name).append("accesses", new Document("ops", ops));
+    }
+}
@@ -0,0 +1,105 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import com.eximia.exams.dto.response.CursorSliceDto;
+import com.eximia.exams.exception.CustomException;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeysetPaginatorTest {
+
+    private final Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id"));
+    private final MappingMongoConverter converter = converter();
+
+    @Test
+    void shouldRoundTripKeysWithTheirBsonTypes() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("created_at", new Date(1_700_000_000_000L));
+        keys.put("_id", new ObjectId("65a1f0c2e4b0a1b2c3d4e5f6"));
+
+        String cursor = KeysetPaginator.encode(ScrollPosition.forward(keys), sort, converter);
+        KeysetScrollPosition position = KeysetPaginator.decode(cursor, sort);
+
+        assertThat(position.getKeys()).containsExactlyEntriesOf(keys);
+        assertThat(cursor).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void shouldIssueACursorAfterAnExamSortedByCreationDate() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 9, 30);
+        Exam exam = Exam.builder().id("65a1f0c2e4b0a1b2c3d4e5f6").title("Algebra").build();
+        exam.setCreatedAt(createdAt);
+
+        // Positions carry the entity's own values, as MongoTemplate.scroll extracts them
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.scroll(any(Query.class), eq(Exam.class))).thenReturn(Window.from(List.of(exam),
+                index -> ScrollPosition.forward(Map.of("createdAt", exam.getCreatedAt(), "id", exam.getId())), true));
+
+        CursorSliceDto<String> slice = new KeysetPaginator(mongoTemplate).scroll(new Query(),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "createdAt")), null, Exam.class,
+                Set.of("createdAt"), exams -> exams.stream().map(Exam::getTitle).toList());
+
+        assertThat(slice.isHasNext()).isTrue();
+        KeysetScrollPosition next = KeysetPaginator.decode(slice.getNextCursor(), sort);
+        assertThat(next.getKeys().get("createdAt"))
+                .isEqualTo(Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant()));
+        assertThat(next.getKeys().get("id")).isEqualTo(exam.getId());
+    }
+
+    @Test
+    void shouldRejectSortsByPropertiesThatMayBeMissing() {
+        KeysetPaginator keysetPaginator = new KeysetPaginator(mock(MongoTemplate.class));
+
+        assertThatThrownBy(() -> keysetPaginator.scroll(new Query(), PageRequest.of(0, 10, Sort.by("description")),
+                null, Exam.class, Set.of("createdAt"), exams -> exams))
+                .isInstanceOf(CustomException.class)
+                .hasMessageContaining("description");
+    }
+
+    @Test
+    void shouldRejectCursorsIssuedForAnotherSort() {
+        String cursor = KeysetPaginator.encode(ScrollPosition.forward(Map.of("_id", new ObjectId())), sort, converter);
+
+        assertThatThrownBy(() -> KeysetPaginator.decode(cursor, Sort.by("title").and(Sort.by("id"))))
+                .isInstanceOf(CustomException.class);
+        assertThatThrownBy(() -> KeysetPaginator.decode("not-a-cursor", sort))
+                .isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void shouldStartFromTheBeginningWithoutCursor() {
+        assertThat(KeysetPaginator.decode(null, sort).isInitial()).isTrue();
+    }
+
+    private static MappingMongoConverter converter() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
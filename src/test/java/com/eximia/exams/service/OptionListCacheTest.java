@@ -0,0 +1,60 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.OptionResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptionListCacheTest {
+
+    private final OptionListCache optionListCache =
+            new OptionListCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void shouldLoadOnlyTheMissingQuestionsInOneCall() {
+        List<Set<String>> loads = new ArrayList<>();
+        optionListCache.get("q1", questionId -> List.of(option(questionId)));
+
+        Map<String, List<OptionResponseDto>> options = optionListCache.getAll(List.of("q1", "q2", "q3"), missing -> {
+            loads.add(missing);
+            return Map.of("q2", List.of(option("q2")));
+        });
+
+        assertThat(loads).containsExactly(Set.of("q2", "q3"));
+        assertThat(options.get("q1")).hasSize(1);
+        assertThat(options.get("q2")).hasSize(1);
+        assertThat(options.get("q3")).isEmpty();
+        assertThatThrownBy(() -> options.get("q2").add(option("q2")))
+                .isInstanceOf(UnsupportedOperationException.class);
+
+        optionListCache.getAll(List.of("q1", "q2", "q3"), missing -> {
+            loads.add(missing);
+            return Map.of();
+        });
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    void shouldEvictTheQuestionsOfAnExamChange() {
+        optionListCache.get("q1", questionId -> List.of(option(questionId)));
+        optionListCache.get("q2", questionId -> List.of(option(questionId)));
+
+        optionListCache.onExamChanged(ExamChangedEvent.updated("exam-1", Set.of("q1")));
+
+        assertThat(optionListCache.get("q1", questionId -> List.of())).isEmpty();
+        assertThat(optionListCache.get("q2", questionId -> List.of())).hasSize(1);
+    }
+
+    private static OptionResponseDto option(String questionId) {
+        return OptionResponseDto.builder().id(questionId + "-o1").questionId(questionId).build();
+    }
+}
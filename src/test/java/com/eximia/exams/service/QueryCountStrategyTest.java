@@ -0,0 +1,95 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Exam;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryCountStrategyTest {
+
+    private MongoTemplate mongoTemplate;
+    private QueryCountStrategy countStrategy;
+
+    @BeforeEach
+    void init() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.getCollectionName(Exam.class)).thenReturn("exams");
+        countStrategy = new QueryCountStrategy(mongoTemplate, Duration.ofSeconds(10), 100);
+    }
+
+    @Test
+    void shouldUseTheEstimateForUnfilteredCounts() {
+        when(mongoTemplate.estimatedCount("exams")).thenReturn(42L);
+
+        assertThat(countStrategy.count(new Query(), Exam.class)).isEqualTo(42);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Exam.class));
+    }
+
+    @Test
+    void shouldReuseFilteredCountsForTheSameCriteria() {
+        when(mongoTemplate.count(any(Query.class), eq(Exam.class))).thenReturn(7L);
+
+        countStrategy.count(Query.query(Criteria.where("subject").is("Math")), Exam.class);
+        long cached = countStrategy.count(Query.query(Criteria.where("subject").is("Math")), Exam.class);
+        countStrategy.count(Query.query(Criteria.where("subject").is("Physics")), Exam.class);
+
+        assertThat(cached).isEqualTo(7);
+        verify(mongoTemplate, times(2)).count(any(Query.class), eq(Exam.class));
+    }
+
+    @Test
+    void shouldNotCountWhenTheLastPageRevealsTheTotal() {
+        Query query = Query.query(Criteria.where("subject").is("Math"));
+
+        Page<String> page = countStrategy.page(List.of("a", "b"), PageRequest.of(0, 20), query, Exam.class);
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Exam.class));
+    }
+
+    @Test
+    void shouldFetchOneMoreDocumentToTellWhetherAnotherSliceFollows() {
+        List<Pageable> fetched = new ArrayList<>();
+
+        Slice<String> full = countStrategy.slice(PageRequest.of(1, 2), page -> {
+            fetched.add(page);
+            return List.of("a", "b", "c");
+        });
+        Slice<String> partial = countStrategy.slice(PageRequest.of(2, 2), page -> List.of("a"));
+
+        assertThat(full.getContent()).containsExactly("a", "b");
+        assertThat(full.hasNext()).isTrue();
+        assertThat(partial.getContent()).containsExactly("a");
+        assertThat(partial.hasNext()).isFalse();
+        assertThat(fetched.get(0).getOffset()).isEqualTo(2);
+        assertThat(fetched.get(0).getPageSize()).isEqualTo(3);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Exam.class));
+    }
+}
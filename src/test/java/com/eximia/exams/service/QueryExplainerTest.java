@@ -0,0 +1,55 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.dto.response.QueryExplanationDto;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class QueryExplainerTest {
+
+    @Test
+    void shouldFlagCollectionScansAndSuggestAnEsrOrderedIndex() {
+        Document filter = new Document("$and", List.of(
+                new Document("created_at", new Document("$gte", "2024-01-01")),
+                new Document("subject", "Programming"),
+                new Document("difficulty_level", new Document("$in", List.of("Advanced", "Expert")))));
+        Document sort = new Document("title", 1);
+        Document explain = new Document("queryPlanner", new Document("winningPlan", new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "COLLSCAN"))))
+                .append("executionStats", new Document("nReturned", 3)
+                        .append("totalKeysExamined", 0)
+                        .append("totalDocsExamined", 5000)
+                        .append("executionTimeMillis", 42));
+
+        QueryExplanationDto explanation = QueryExplainer.summarize("exams", filter, sort, explain);
+
+        assertThat(explanation.getWinningPlan()).isEqualTo("SORT <- COLLSCAN");
+        assertThat(explanation.getCollectionScan()).isTrue();
+        assertThat(explanation.getDocsExamined()).isEqualTo(5000);
+        assertThat(explanation.getSuggestedIndex()).containsExactly(
+                entry("subject", 1), entry("difficulty_level", 1), entry("title", 1), entry("created_at", 1));
+    }
+
+    @Test
+    void shouldReportIndexesOfEfficientPlansWithoutSuggestion() {
+        Document filter = new Document("exam_id", "exam-1");
+        Document explain = new Document("queryPlanner", new Document("winningPlan", new Document("queryPlan",
+                new Document("stage", "FETCH").append("inputStage", new Document("stage", "IXSCAN")
+                        .append("indexName", "exam_id_order_index")
+                        .append("keyPattern", new Document("exam_id", 1).append("order_index", 1))))))
+                .append("executionStats", new Document("nReturned", 4)
+                        .append("totalKeysExamined", 4)
+                        .append("totalDocsExamined", 4));
+
+        QueryExplanationDto explanation = QueryExplainer.summarize("questions", filter, new Document(), explain);
+
+        assertThat(explanation.getWinningPlan()).isEqualTo("FETCH <- IXSCAN {\"exam_id\": 1, \"order_index\": 1}");
+        assertThat(explanation.getIndexesUsed()).containsExactly("exam_id_order_index");
+        assertThat(explanation.getCollectionScan()).isFalse();
+        assertThat(explanation.getSuggestedIndex()).isNull();
+    }
+}
@@ -0,0 +1,39 @@
+package com.eximia.exams.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryStreamerTest {
+
+    @Test
+    void shouldMapAndHandOverResultsInChunksOfTheBatchSize() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        List<Query> queries = new ArrayList<>();
+        when(mongoTemplate.stream(any(Query.class), eq(String.class))).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return Stream.of("a", "b", "c", "d", "e");
+        });
+        QueryStreamer queryStreamer = new QueryStreamer(mongoTemplate, 2);
+
+        List<List<String>> chunks = new ArrayList<>();
+        long count = queryStreamer.stream(new Query(), String.class,
+                values -> values.stream().map(String::toUpperCase).collect(Collectors.toList()),
+                chunks::add);
+
+        assertThat(count).isEqualTo(5);
+        assertThat(chunks).containsExactly(List.of("A", "B"), List.of("C", "D"), List.of("E"));
+        assertThat(queries.get(0).getMeta().getCursorBatchSize()).isEqualTo(2);
+    }
+}
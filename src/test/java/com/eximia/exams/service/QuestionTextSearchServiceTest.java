@@ -0,0 +1,123 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.domain.entities.Option;
+import com.eximia.exams.domain.entities.Question;
+import com.eximia.exams.domain.events.ExamChangedEvent;
+import com.eximia.exams.dto.response.ExamResponseDto;
+import com.eximia.exams.dto.response.OptionResponseDto;
+import com.eximia.exams.dto.response.QuestionResponseDto;
+import com.eximia.exams.dto.response.QuestionSearchHitDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuestionTextSearchServiceTest {
+
+    @TempDir
+    Path indexPath;
+
+    private MongoTemplate mongoTemplate;
+    private QuestionTextSearchService searchService;
+
+    @BeforeEach
+    void init() throws Exception {
+        QuestionQueryService questionQueryService = mock(QuestionQueryService.class);
+        when(questionQueryService.findByIds(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(id -> QuestionResponseDto.builder().id(id).build())
+                .collect(Collectors.toList()));
+
+        mongoTemplate = mock(MongoTemplate.class);
+        searchService = new QuestionTextSearchService(mongoTemplate, questionQueryService, true, indexPath);
+        searchService.open();
+
+        searchService.onExamChanged(ExamChangedEvent.created(ExamResponseDto.builder()
+                .id("exam-1")
+                .questions(List.of(
+                        question("q-1", "What is polymorphism in object oriented programming?", "Many forms",
+                                option("o-1", "Overriding methods in subclasses")),
+                        question("q-2", "Which keyword declares a constant in Java?", null,
+                                option("o-2", "final"), option("o-3", "static"))))
+                .build()));
+        searchService.refresh();
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        searchService.close();
+    }
+
+    @Test
+    void shouldFindQuestionsByOptionTextWithHighlights() {
+        List<QuestionSearchHitDto> hits = searchService.search("overriding", TextSearchMode.MATCH, 10);
+
+        assertThat(hits).extracting(hit -> hit.getQuestion().getId()).containsExactly("q-1");
+        assertThat(hits.get(0).getHighlights()).containsEntry("optionText", "<b>Overriding</b> methods in subclasses");
+    }
+
+    @Test
+    void shouldSupportPrefixFuzzyAndPhraseQueries() {
+        assertThat(searchService.search("poly", TextSearchMode.PREFIX, 10))
+                .extracting(hit -> hit.getQuestion().getId()).containsExactly("q-1");
+        assertThat(searchService.search("constnat", TextSearchMode.FUZZY, 10))
+                .extracting(hit -> hit.getQuestion().getId()).containsExactly("q-2");
+        assertThat(searchService.search("keyword declares", TextSearchMode.PHRASE, 10))
+                .extracting(hit -> hit.getQuestion().getId()).containsExactly("q-2");
+        assertThat(searchService.search("declares keyword", TextSearchMode.PHRASE, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveTheDocumentsOfDeletedExams() throws Exception {
+        searchService.onExamChanged(ExamChangedEvent.deleted("exam-1"));
+        searchService.refresh();
+
+        assertThat(searchService.search("java", TextSearchMode.MATCH, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReindexExamsWrittenOnOtherReplicas() throws Exception {
+        Question renamed = Question.builder()
+                .id("q-2")
+                .examId("exam-1")
+                .questionText("Which modifier prevents reassignment in Kotlin?")
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Question.class))).thenReturn(List.of(renamed));
+        when(mongoTemplate.find(any(Query.class), eq(Option.class))).thenReturn(List.of());
+
+        searchService.reindexExams(Set.of("exam-1"));
+        searchService.refresh();
+
+        assertThat(searchService.search("java", TextSearchMode.MATCH, 10)).isEmpty();
+        assertThat(searchService.search("polymorphism", TextSearchMode.MATCH, 10)).isEmpty();
+        assertThat(searchService.search("kotlin", TextSearchMode.MATCH, 10))
+                .extracting(hit -> hit.getQuestion().getId()).containsExactly("q-2");
+    }
+
+    private static QuestionResponseDto question(String id, String text, String explanation, OptionResponseDto... options) {
+        return QuestionResponseDto.builder()
+                .id(id)
+                .examId("exam-1")
+                .questionText(text)
+                .explanation(explanation)
+                .options(List.of(options))
+                .build();
+    }
+
+    private static OptionResponseDto option(String id, String text) {
+        return OptionResponseDto.builder().id(id).optionText(text).build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.eximia.exams.service;
+
+import com.eximia.exams.exception.ExamNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("exam", "exam-1", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "exam-1";
+                })));
+            }
+            while (coalesced() < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("exam-1");
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("exams.single-flight.loads", "operation", "exam").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadAgainAfterTheBoundedWait() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> singleFlight.execute("exam", "exam-1", () -> {
+                await(release);
+                return "slow";
+            }));
+            while (meterRegistry.counter("exams.single-flight.loads", "operation", "exam").count() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThat(singleFlight.execute("exam", "exam-1", () -> "own")).isEqualTo("own");
+            release.countDown();
+        }
+
+        assertThat(meterRegistry.counter("exams.single-flight.timeouts", "operation", "exam").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRethrowTheFailureOfTheLoad() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> singleFlight.execute("exam", "missing", () -> {
+            throw new ExamNotFoundException("Exam not found with ID: missing");
+        })).isInstanceOf(ExamNotFoundException.class);
+        assertThat(singleFlight.execute("exam", "missing", () -> "created")).isEqualTo("created");
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("exams.single-flight.coalesced", "operation", "exam").count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}